@@ -0,0 +1,113 @@
+package edu.virginia.aid.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.detectors.FeatureDetector;
+import edu.virginia.aid.parsers.FileMethodParser;
+import edu.virginia.aid.util.MethodProcessor;
+
+/**
+ * Parser for a single file in the benchmark directory that also exposes the intermediate steps of the
+ * analysis, so that each step can be measured on its own. Benchmarks are run from the project root, the
+ * same as AID itself, so that WordNet and the primary action training set can be found.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class BenchmarkFileParser extends FileMethodParser {
+
+    /**
+     * Directory containing the benchmark source files, relative to the working directory
+     */
+    public static final String BENCHMARK_DIRECTORY = "benchmark";
+
+    /**
+     * Directory containing the training source files, relative to the working directory
+     */
+    public static final String TRAINING_DIRECTORY = "training/data";
+
+    /**
+     * The path to the source file
+     */
+    private final String filePath;
+
+    /**
+     * Creates a parser for a file in the benchmark directory
+     *
+     * @param fileName The name of the file within the benchmark directory
+     */
+    public BenchmarkFileParser(String fileName) {
+        this(BENCHMARK_DIRECTORY, fileName);
+    }
+
+    /**
+     * Creates a parser for a file in another directory, such as the training data
+     *
+     * @param directory The directory containing the file, relative to the working directory
+     * @param fileName The name of the file within the directory
+     */
+    public BenchmarkFileParser(String directory, String fileName) {
+        this(new File(directory, fileName));
+    }
+
+    private BenchmarkFileParser(File file) {
+        super(file.getPath(), false);
+        this.filePath = file.getPath();
+    }
+
+    /**
+     * Parses the file into an AST
+     *
+     * @return The compilation unit for the file
+     */
+    public CompilationUnit getCompilationUnit() {
+        return parseCompilationUnit(new String(readFileContents(filePath)));
+    }
+
+    /**
+     * Parses the file into an AST and gathers its class information, without analyzing any methods
+     *
+     * @return Information about the class in the file, including its method declarations
+     */
+    public ClassInformation getClassInformation() {
+        String fileData = new String(readFileContents(filePath));
+        return getClassInformation(parseCompilationUnit(fileData), filePath, fileData);
+    }
+
+    /**
+     * Creates the full set of feature detectors for each method in a class, treating every method as the
+     * root of its own alias chain
+     *
+     * @param classInformation The class whose methods will be processed
+     * @return The detectors for each method, in the same order as the class's method declarations
+     */
+    public List<List<FeatureDetector>> getFeatureDetectors(ClassInformation classInformation) {
+        Map<MethodDeclaration, MethodFeatures> methodFeaturesMap = new HashMap<>();
+
+        List<List<FeatureDetector>> detectors = new ArrayList<>();
+        for (MethodDeclaration method : classInformation.getMethodDeclarations()) {
+            detectors.add(getFeatureDetectors(method, methodFeaturesMap, false));
+        }
+
+        return detectors;
+    }
+
+    /**
+     * Creates an empty features object for a method, as it is before any detectors have been run
+     *
+     * @param method The method declaration
+     * @param classInformation The class containing the method
+     * @return Features object holding only the method's name, location and return type
+     */
+    public MethodFeatures createMethodFeatures(MethodDeclaration method, ClassInformation classInformation) {
+        return new MethodProcessor(method, classInformation, filePath).runDetectors();
+    }
+}
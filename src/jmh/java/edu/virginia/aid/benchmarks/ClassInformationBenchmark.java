@@ -0,0 +1,77 @@
+package edu.virginia.aid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.visitors.VariableUsageVisitor;
+
+/**
+ * Measures looking up the fields of a class the way the identifier detector does: once for every field
+ * used in each method and once for every other identifier the method uses, along with listing the class's
+ * field names. Each invocation covers every method in the file.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ClassInformationBenchmark {
+
+    @Param({"JOptionPane.java"})
+    public String file;
+
+    private ClassInformation classInformation;
+
+    /**
+     * The names of the fields and other identifiers used in each method, in the order they are looked up
+     */
+    private List<String> identifierNames = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        BenchmarkFileParser parser = new BenchmarkFileParser(BenchmarkFileParser.TRAINING_DIRECTORY, file);
+        classInformation = parser.getClassInformation();
+
+        for (MethodDeclaration method : classInformation.getMethodDeclarations()) {
+            if (method.getBody() != null) {
+                VariableUsageVisitor visitor = new VariableUsageVisitor(parser.createMethodFeatures(method, classInformation), false);
+                method.getBody().accept(visitor);
+                identifierNames.addAll(visitor.getFieldNames());
+                identifierNames.addAll(visitor.getIdentifierNames());
+            }
+        }
+    }
+
+    @Benchmark
+    public void getFieldByName(Blackhole blackhole) {
+        for (String name : identifierNames) {
+            blackhole.consume(classInformation.getFieldByName(name));
+        }
+    }
+
+    @Benchmark
+    public void getFieldNames(Blackhole blackhole) {
+        for (MethodDeclaration method : classInformation.getMethodDeclarations()) {
+            blackhole.consume(classInformation.getFieldNames().size());
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package edu.virginia.aid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.data.CommentInfo;
+
+/**
+ * Measures finding the comments of every method in a file. The comments of a method are read three times
+ * during its analysis (stemming, stoplist and comment text), so the old approach of scanning all of the class's
+ * comments on each read is compared against assigning the comments to methods once and then looking them up.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommentBenchmark {
+
+    /**
+     * The number of times the comments of each method are read during its analysis
+     */
+    private static final int READS_PER_METHOD = 3;
+
+    @Param({"BigInteger.java"})
+    public String file;
+
+    private ClassInformation classInformation;
+
+    @Setup
+    public void setUp() {
+        classInformation = new BenchmarkFileParser(BenchmarkFileParser.TRAINING_DIRECTORY, file).getClassInformation();
+    }
+
+    @Benchmark
+    public void assignedComments(Blackhole blackhole) {
+        classInformation.assignMethodComments();
+        for (MethodDeclaration method : classInformation.getMethodDeclarations()) {
+            int startPos = method.getStartPosition();
+            int endPos = startPos + method.getLength();
+            for (int i = 0; i < READS_PER_METHOD; i++) {
+                blackhole.consume(classInformation.getMethodComments(startPos, endPos));
+            }
+        }
+    }
+
+    @Benchmark
+    public void scannedComments(Blackhole blackhole) {
+        for (MethodDeclaration method : classInformation.getMethodDeclarations()) {
+            int startPos = method.getStartPosition();
+            int endPos = startPos + method.getLength();
+            for (int i = 0; i < READS_PER_METHOD; i++) {
+                List<CommentInfo> comments = new ArrayList<>();
+                for (CommentInfo comment : classInformation.getComments()) {
+                    if (comment.getStartPos() >= startPos && comment.getEndPos() <= endPos) {
+                        comments.add(comment);
+                    }
+                }
+                blackhole.consume(comments);
+            }
+        }
+    }
+}
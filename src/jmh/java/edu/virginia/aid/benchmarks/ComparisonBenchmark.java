@@ -0,0 +1,81 @@
+package edu.virginia.aid.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.virginia.aid.comparison.MethodDifferences;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.data.TermDictionary;
+import edu.virginia.aid.data.TermVector;
+import edu.virginia.aid.parsers.DirectoryMethodParser;
+import edu.virginia.aid.util.Driver;
+import edu.virginia.aid.util.SynonymCache;
+import edu.virginia.aid.util.WordNetProvider;
+
+/**
+ * Measures the comparison of methods against their comments over every method in the benchmark directory:
+ * looking terms up in the comments, and scoring and ranking the methods. The shared synonym cache stays
+ * warm across invocations, as it does over the course of an AID run.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ComparisonBenchmark {
+
+    private SynonymCache synonymCache;
+    private List<MethodFeatures> methods;
+    private TermDictionary terms = new TermDictionary();
+
+    @Setup
+    public void setUp() {
+        synonymCache = WordNetProvider.getSynonymCache();
+        methods = new DirectoryMethodParser(BenchmarkFileParser.BENCHMARK_DIRECTORY, false).parseMethods();
+    }
+
+    @Benchmark
+    public int containedInComments() {
+        int found = 0;
+        for (MethodFeatures method : methods) {
+            TermVector wordFrequencies = method.getWordFrequencies(terms);
+            for (int i = 0; i < wordFrequencies.size(); i++) {
+                if (method.containedInComments(synonymCache, terms.getTerm(wordFrequencies.getTerm(i)))) {
+                    found++;
+                }
+            }
+        }
+
+        return found;
+    }
+
+    @Benchmark
+    public List<MethodDifferences> compareAndRank(Ranking ranking) {
+        return Driver.compareAndRank(methods, ranking.topK);
+    }
+
+    /**
+     * Number of methods kept by the ranking, kept separate so that only the ranking is run for each value
+     */
+    @State(Scope.Benchmark)
+    public static class Ranking {
+
+        @Param({"0", "10"})
+        public int topK;
+    }
+}
@@ -0,0 +1,100 @@
+package edu.virginia.aid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.virginia.aid.data.CorpusStatistics;
+import edu.virginia.aid.data.TermDictionary;
+import edu.virginia.aid.data.TermVector;
+
+/**
+ * Measures the TF/IDF phase of ranking on synthetic corpora of increasing size: building the document
+ * frequency table from every method's words and then weighting each word of each method by its IDF, the way
+ * Driver.compareAndRank and MethodFeatures.calculateTFIDF do. The time per invocation should grow linearly
+ * with the number of methods.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CorpusStatisticsBenchmark {
+
+    /**
+     * The number of distinct words in the synthetic corpus
+     */
+    private static final int VOCABULARY_SIZE = 20000;
+
+    /**
+     * The most words a synthetic method has
+     */
+    private static final int MAX_WORDS_PER_METHOD = 30;
+
+    @Param({"1000", "10000", "100000"})
+    public int methods;
+
+    private List<String> vocabulary = new ArrayList<>();
+
+    /**
+     * The words of each method, numbered in vocabulary order
+     */
+    private List<TermVector> documents = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < VOCABULARY_SIZE; i++) {
+            vocabulary.add("term" + i);
+        }
+
+        // Cubing a uniform value favors low word numbers, so a few words are common and most are rare
+        Random random = new Random(42);
+        for (int i = 0; i < methods; i++) {
+            int wordCount = 1 + random.nextInt(MAX_WORDS_PER_METHOD);
+            int[] words = new int[wordCount];
+            for (int j = 0; j < wordCount; j++) {
+                double r = random.nextDouble();
+                words[j] = (int) (VOCABULARY_SIZE * r * r * r);
+            }
+            documents.add(TermVector.ofDistinctTerms(words, wordCount, 1));
+        }
+    }
+
+    @Benchmark
+    public double calculateTFIDF() {
+        CorpusStatistics corpus = new CorpusStatistics();
+        TermDictionary terms = corpus.getTerms();
+        for (String word : vocabulary) {
+            terms.getId(word);
+        }
+
+        for (TermVector document : documents) {
+            corpus.addDocument(document);
+        }
+
+        double total = 0;
+        for (TermVector document : documents) {
+            for (int i = 0; i < document.size(); i++) {
+                double tf = 1 + Math.log(document.getValue(i));
+                total += tf * corpus.getInverseDocumentFrequency(document.getTerm(i));
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,108 @@
+package edu.virginia.aid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.detectors.FeatureDetector;
+
+/**
+ * Measures each feature detector on its own. Every invocation runs one detector over all of the methods in
+ * a file; before each invocation, fresh features are built for every method by running the detectors that
+ * come before it in the pipeline, so the measured detector always sees the same input as it would in AID.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FeatureDetectorBenchmark {
+
+    @Param({"java.lang.String.java", "java.io.File.java", "edu.rice.cs.drjava.model.AbstractDJDocument.java"})
+    public String file;
+
+    @Param({"CommentDetector", "MethodSignatureProcessor", "IdentifierDetector", "StemmingProcessor",
+            "StoplistProcessor", "ParameterCopyDetector", "PrimaryActionDetector", "PrimaryObjectDetector",
+            "SuccessConditionDetector"})
+    public String detector;
+
+    private BenchmarkFileParser parser;
+    private ClassInformation classInformation;
+    private List<MethodDeclaration> methods;
+
+    /**
+     * The full pipeline of detectors for each method
+     */
+    private List<List<FeatureDetector>> detectors;
+
+    /**
+     * The position of the measured detector in the pipeline
+     */
+    private int detectorIndex;
+
+    /**
+     * The features of each method, as they are just before the measured detector runs
+     */
+    private List<MethodFeatures> features;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        parser = new BenchmarkFileParser(file);
+        classInformation = parser.getClassInformation();
+        methods = classInformation.getMethodDeclarations();
+        detectors = parser.getFeatureDetectors(classInformation);
+
+        detectorIndex = -1;
+        List<FeatureDetector> pipeline = detectors.isEmpty() ? new ArrayList<>() : detectors.get(0);
+        for (int i = 0; i < pipeline.size(); i++) {
+            if (pipeline.get(i).getClass().getSimpleName().equals(detector)) {
+                detectorIndex = i;
+            }
+        }
+
+        if (detectorIndex < 0) {
+            throw new RuntimeException("Unknown feature detector " + detector);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        features = new ArrayList<>(methods.size());
+        for (int i = 0; i < methods.size(); i++) {
+            MethodDeclaration method = methods.get(i);
+            MethodFeatures methodFeatures = parser.createMethodFeatures(method, classInformation);
+            for (FeatureDetector featureDetector : detectors.get(i).subList(0, detectorIndex)) {
+                featureDetector.process(method, methodFeatures);
+            }
+            features.add(methodFeatures);
+        }
+    }
+
+    @Benchmark
+    public List<MethodFeatures> process() {
+        for (int i = 0; i < methods.size(); i++) {
+            detectors.get(i).get(detectorIndex).process(methods.get(i), features.get(i));
+        }
+
+        return features;
+    }
+}
@@ -0,0 +1,77 @@
+package edu.virginia.aid.benchmarks;
+
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.CompilationUnit;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.parsers.FileMethodParser;
+
+/**
+ * Heap check for the analyzed methods of the benchmark and training corpora. Every file in both directories
+ * is analyzed and all of the resulting methods are held, as they are until ranking ends, and then the heap
+ * they retain is reported. The check fails if any file's compilation unit is still reachable from the
+ * methods once they have been analyzed. Run it from the project root:
+ *
+ * <pre>java -cp target/benchmarks.jar edu.virginia.aid.benchmarks.HeapUsageCheck</pre>
+ *
+ * It exits with status 1 if any compilation unit was kept.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class HeapUsageCheck {
+
+    private static final String[] DIRECTORIES = { BenchmarkFileParser.BENCHMARK_DIRECTORY,
+            BenchmarkFileParser.TRAINING_DIRECTORY };
+
+    public static void main(String[] args) throws InterruptedException {
+        List<WeakReference<CompilationUnit>> compilationUnits = new ArrayList<>();
+        List<MethodFeatures> methods = new ArrayList<>();
+
+        long heapBefore = usedHeap();
+        for (String directory : DIRECTORIES) {
+            File[] files = new File(directory).listFiles((dir, name) -> name.endsWith(".java"));
+            for (File file : files) {
+                FileMethodParser parser = new FileMethodParser(file.getPath(), false) {
+                    @Override
+                    protected ClassInformation getClassInformation(CompilationUnit cu, String filepath, String fileData) {
+                        compilationUnits.add(new WeakReference<>(cu));
+                        return super.getClassInformation(cu, filepath, fileData);
+                    }
+                };
+                methods.addAll(parser.parseMethods());
+            }
+        }
+        long heapAfter = usedHeap();
+
+        int keptUnits = 0;
+        for (WeakReference<CompilationUnit> compilationUnit : compilationUnits) {
+            if (compilationUnit.get() != null) {
+                keptUnits++;
+            }
+        }
+
+        System.out.printf("%n%d methods from %d files retain %.1f MB (%.1f KB per method)%n", methods.size(),
+                compilationUnits.size(), (heapAfter - heapBefore) / 1e6, (heapAfter - heapBefore) / 1e3 / methods.size());
+        System.out.printf("%d of %d compilation units are still reachable%n", keptUnits, compilationUnits.size());
+        if (keptUnits > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Gets the heap in use once unreachable objects have been collected
+     */
+    private static long usedHeap() throws InterruptedException {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+}
@@ -0,0 +1,52 @@
+package edu.virginia.aid.benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import edu.virginia.aid.data.MethodFeatures;
+
+/**
+ * Measures the end-to-end analysis of a source file: parsing it into an AST and running every feature
+ * detector on each of its methods
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParseBenchmark {
+
+    @Param({"java.lang.String.java", "java.io.File.java", "edu.rice.cs.drjava.model.AbstractDJDocument.java",
+            "java.net.Socket.java", "java.util.HashMap.java"})
+    public String file;
+
+    private BenchmarkFileParser parser;
+
+    @Setup
+    public void setUp() {
+        parser = new BenchmarkFileParser(file);
+
+        // Train the classifier up front so that it is not part of the first measurement
+        parser.getPrimaryActionClassifier();
+    }
+
+    @Benchmark
+    public List<MethodFeatures> getMethodsFromFile() {
+        return parser.parseMethods();
+    }
+}
@@ -0,0 +1,81 @@
+package edu.virginia.aid.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import edu.virginia.aid.detectors.StemmingProcessor;
+import edu.virginia.aid.util.StringHelper;
+
+/**
+ * Stress check for stemming from many threads at once. Every word in the training data is stemmed on a single
+ * thread, then again from 32 threads that each stem all of the words starting at a different offset, and each
+ * thread's stems are compared with the single-threaded ones. Run it from the project root:
+ *
+ * <pre>java -cp target/benchmarks.jar edu.virginia.aid.benchmarks.StemmingStressCheck</pre>
+ *
+ * It exits with status 1 if any word is stemmed differently.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class StemmingStressCheck {
+
+    private static final int THREADS = 32;
+
+    public static void main(String[] args) throws IOException, InterruptedException, ExecutionException {
+        List<String> words = new ArrayList<>();
+        File[] files = new File(BenchmarkFileParser.TRAINING_DIRECTORY).listFiles((dir, name) -> name.endsWith(".java"));
+        for (File file : files) {
+            String contents = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            for (String token : contents.split("[^A-Za-z]+")) {
+                for (String word : StringHelper.splitCamelCaseUncached(token).split(" ")) {
+                    if (!word.isEmpty()) {
+                        words.add(word.toLowerCase());
+                    }
+                }
+            }
+        }
+
+        StemmingProcessor stemmingProcessor = new StemmingProcessor();
+        String[] expected = new String[words.size()];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = stemmingProcessor.stem(words.get(i));
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<Integer>> results = new ArrayList<>();
+        for (int t = 0; t < THREADS; t++) {
+            // Each thread starts at a different word so that the threads are stemming different words at once
+            int offset = t * (words.size() / THREADS);
+            results.add(executor.submit(() -> {
+                int mismatches = 0;
+                for (int i = 0; i < words.size(); i++) {
+                    int index = (offset + i) % words.size();
+                    if (!stemmingProcessor.stem(words.get(index)).equals(expected[index])) {
+                        mismatches++;
+                    }
+                }
+                return mismatches;
+            }));
+        }
+
+        int mismatches = 0;
+        for (Future<Integer> result : results) {
+            mismatches += result.get();
+        }
+        executor.shutdown();
+
+        System.out.printf("Stemmed %d words on %d threads: %d differed from single-threaded stemming%n",
+                words.size(), THREADS, mismatches);
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package edu.virginia.aid.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.ASTVisitor;
+import org.eclipse.jdt.core.dom.SimpleName;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.virginia.aid.util.StringHelper;
+
+/**
+ * Measures splitting identifier names on camel case over every identifier in the training data, in source
+ * order and with repeats, as IdentifierProperties sees them. The single-pass splitter is measured with and
+ * without its cache, and against the regular expression it replaced.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class StringHelperBenchmark {
+
+    private List<String> identifiers = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        File[] files = new File(BenchmarkFileParser.TRAINING_DIRECTORY).listFiles((dir, name) -> name.endsWith(".java"));
+        for (File file : files) {
+            new BenchmarkFileParser(BenchmarkFileParser.TRAINING_DIRECTORY, file.getName()).getCompilationUnit().accept(new ASTVisitor() {
+                @Override
+                public boolean visit(SimpleName node) {
+                    identifiers.add(node.getIdentifier());
+                    return false;
+                }
+            });
+        }
+    }
+
+    @Benchmark
+    public void splitCamelCase(Blackhole blackhole) {
+        for (String identifier : identifiers) {
+            blackhole.consume(StringHelper.splitCamelCase(identifier));
+        }
+    }
+
+    @Benchmark
+    public void splitCamelCaseUncached(Blackhole blackhole) {
+        for (String identifier : identifiers) {
+            blackhole.consume(StringHelper.splitCamelCaseUncached(identifier));
+        }
+    }
+
+    @Benchmark
+    public void splitCamelCaseRegex(Blackhole blackhole) {
+        for (String identifier : identifiers) {
+            String[] wordSplit = identifier.split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
+            String newWord = "";
+            for (String w : wordSplit) {
+                newWord += w + " ";
+            }
+            blackhole.consume(newWord.trim());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package edu.virginia.aid.benchmarks;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.detectors.FeatureDetector;
+import edu.virginia.aid.detectors.SuccessConditionDetector;
+import edu.virginia.aid.symex.BooleanAndList;
+import edu.virginia.aid.symex.PathConditionAnalysis;
+import edu.virginia.aid.symex.SumOfProducts;
+import edu.virginia.aid.symex.SymbolicExecution;
+import edu.virginia.aid.util.AnalysisBudget;
+import edu.virginia.aid.util.IndexedControlFlowGraph;
+
+/**
+ * Regression check for the bitset conversion of success conditions. The exceptional path conditions of every
+ * method that throws in the benchmark and training corpora are negated both by multiplying out lists of
+ * IdentifierValues (SymbolicExecution.inverseSymExObjects) and through BitSetSumOfProducts
+ * (SymbolicExecution.inverseSymEx), and the two must give the same success conditions, term for term. Methods
+ * whose full cross product is past the product limit are only counted, since the object path gives up on
+ * them. Run it from the project root:
+ *
+ * <pre>java -cp target/benchmarks.jar edu.virginia.aid.benchmarks.SuccessConditionEquivalenceCheck</pre>
+ *
+ * It exits with status 1 if the two differ for any method.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class SuccessConditionEquivalenceCheck {
+
+    private static final String[] DIRECTORIES = { BenchmarkFileParser.BENCHMARK_DIRECTORY,
+            BenchmarkFileParser.TRAINING_DIRECTORY };
+
+    public static void main(String[] args) {
+        int methodCount = 0;
+        int overLimit = 0;
+        int mismatches = 0;
+
+        for (String directory : DIRECTORIES) {
+            File[] files = new File(directory).listFiles((dir, name) -> name.endsWith(".java"));
+            for (File file : files) {
+                BenchmarkFileParser parser = new BenchmarkFileParser(directory, file.getName());
+                ClassInformation classInformation = parser.getClassInformation();
+                List<MethodDeclaration> methods = classInformation.getMethodDeclarations();
+                List<List<FeatureDetector>> detectors = parser.getFeatureDetectors(classInformation);
+
+                for (int i = 0; i < methods.size(); i++) {
+                    MethodDeclaration method = methods.get(i);
+                    SumOfProducts conditions = getExceptionalConditions(parser, classInformation, method,
+                            detectors.get(i));
+                    if (conditions == null) {
+                        continue;
+                    }
+                    methodCount++;
+
+                    SumOfProducts expected = SymbolicExecution.inverseSymExObjects(conditions, new AnalysisBudget());
+                    SumOfProducts actual = SymbolicExecution.inverseSymEx(conditions, new AnalysisBudget());
+                    if (expected == null) {
+                        overLimit++;
+                    } else if (actual == null || !expected.toString().equals(actual.toString())) {
+                        mismatches++;
+                        System.out.printf("%s %s%n  objects: %s%n  bitsets: %s%n", file.getName(),
+                                method.getName(), expected, actual);
+                    }
+                }
+            }
+        }
+
+        System.out.printf("Negated the conditions of %d methods: %d differed, %d were past the product limit " +
+                "of the object conversion%n", methodCount, mismatches, overLimit);
+        if (mismatches > 0) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Gets the conditions under which a method reaches any of its throw statements, with every detector but the
+     * success condition detector run first
+     *
+     * @return The conditions, or null if the method has no throw statements or they are unknown
+     */
+    private static SumOfProducts getExceptionalConditions(BenchmarkFileParser parser,
+            ClassInformation classInformation, MethodDeclaration method, List<FeatureDetector> detectors) {
+        IndexedControlFlowGraph cfg = new IndexedControlFlowGraph(method);
+        List<ThrowStatement> throwStatements = new ArrayList<>();
+        for (int i = 0; i < cfg.size(); i++) {
+            if (cfg.getStatement(i) instanceof ThrowStatement && cfg.getSuccessorCount(i) > 0) {
+                throwStatements.add((ThrowStatement) cfg.getStatement(i));
+            }
+        }
+        if (throwStatements.isEmpty()) {
+            return null;
+        }
+
+        MethodFeatures features = parser.createMethodFeatures(method, classInformation);
+        for (FeatureDetector detector : detectors) {
+            if (!(detector instanceof SuccessConditionDetector)) {
+                detector.process(method, features);
+            }
+        }
+
+        SumOfProducts conditions = new SumOfProducts();
+        for (ThrowStatement throwStatement : throwStatements) {
+            SumOfProducts throwConditions = PathConditionAnalysis.getConditions(features, cfg, throwStatement);
+            if (throwConditions == null) {
+                return null;
+            }
+            for (BooleanAndList product : throwConditions.getProducts()) {
+                conditions.addProduct(product);
+            }
+        }
+        return conditions;
+    }
+}
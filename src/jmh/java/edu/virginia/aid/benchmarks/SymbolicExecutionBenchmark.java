@@ -0,0 +1,170 @@
+package edu.virginia.aid.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.detectors.FeatureDetector;
+import edu.virginia.aid.detectors.SuccessConditionDetector;
+import edu.virginia.aid.symex.BooleanAndList;
+import edu.virginia.aid.symex.Path;
+import edu.virginia.aid.symex.PathConditionAnalysis;
+import edu.virginia.aid.symex.SumOfProducts;
+import edu.virginia.aid.symex.SymbolicExecution;
+import edu.virginia.aid.util.AnalysisBudget;
+import edu.virginia.aid.util.IndexedControlFlowGraph;
+
+/**
+ * Measures the two halves of finding a method's success conditions: enumerating the control flow paths
+ * that end in a throw statement, and symbolically executing those paths. Path enumeration is also compared
+ * with finding the conditions of those paths directly by dataflow, and multiplying out the negation of those
+ * conditions is compared with negating a binary decision diagram of them. Each invocation covers every method
+ * in a file.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SymbolicExecutionBenchmark {
+
+    @Param({"java.lang.String.java", "java.io.File.java", "edu.rice.cs.drjava.model.AbstractDJDocument.java",
+            "org.hsqldb.cmdline.SqlTool.java"})
+    public String file;
+
+    /**
+     * The control flow graph of each method that contains a throw statement
+     */
+    private List<IndexedControlFlowGraph> cfgs = new ArrayList<>();
+
+    /**
+     * The throw statements in each of those methods
+     */
+    private List<List<ThrowStatement>> throwStatements = new ArrayList<>();
+
+    /**
+     * The features of each of those methods, with every detector but the success condition detector run
+     */
+    private List<MethodFeatures> features = new ArrayList<>();
+
+    /**
+     * The paths to a throw statement in each of those methods
+     */
+    private List<List<Path>> exceptionalPaths = new ArrayList<>();
+
+    /**
+     * The conditions for reaching any throw statement in each of those methods, null where they are unknown
+     */
+    private List<SumOfProducts> exceptionalConditions = new ArrayList<>();
+
+    @Setup
+    public void setUp() {
+        BenchmarkFileParser parser = new BenchmarkFileParser(file);
+        ClassInformation classInformation = parser.getClassInformation();
+        List<MethodDeclaration> methods = classInformation.getMethodDeclarations();
+        List<List<FeatureDetector>> detectors = parser.getFeatureDetectors(classInformation);
+
+        for (int i = 0; i < methods.size(); i++) {
+            MethodDeclaration method = methods.get(i);
+
+            IndexedControlFlowGraph cfg = new IndexedControlFlowGraph(method);
+            List<ThrowStatement> methodThrowStatements = new ArrayList<>();
+            for (int j = 0; j < cfg.size(); j++) {
+                if (cfg.getStatement(j) instanceof ThrowStatement && cfg.getSuccessorCount(j) > 0) {
+                    methodThrowStatements.add((ThrowStatement) cfg.getStatement(j));
+                }
+            }
+
+            if (methodThrowStatements.isEmpty()) {
+                continue;
+            }
+
+            MethodFeatures methodFeatures = parser.createMethodFeatures(method, classInformation);
+            for (FeatureDetector detector : detectors.get(i)) {
+                if (!(detector instanceof SuccessConditionDetector)) {
+                    detector.process(method, methodFeatures);
+                }
+            }
+
+            List<Path> paths = new ArrayList<>();
+            SumOfProducts conditions = new SumOfProducts();
+            for (ThrowStatement throwStatement : methodThrowStatements) {
+                paths.addAll(Path.getPathsToStatement(cfg, throwStatement));
+
+                SumOfProducts throwConditions = PathConditionAnalysis.getConditions(methodFeatures, cfg, throwStatement);
+                if (throwConditions == null || conditions == null) {
+                    conditions = null;
+                } else {
+                    for (BooleanAndList product : throwConditions.getProducts()) {
+                        conditions.addProduct(product);
+                    }
+                }
+            }
+
+            cfgs.add(cfg);
+            throwStatements.add(methodThrowStatements);
+            features.add(methodFeatures);
+            exceptionalPaths.add(paths);
+            exceptionalConditions.add(conditions);
+        }
+    }
+
+    @Benchmark
+    public void getPathsToStatement(Blackhole blackhole) {
+        for (int i = 0; i < cfgs.size(); i++) {
+            for (ThrowStatement throwStatement : throwStatements.get(i)) {
+                blackhole.consume(Path.getPathsToStatement(cfgs.get(i), throwStatement));
+            }
+        }
+    }
+
+    @Benchmark
+    public void getPathConditions(Blackhole blackhole) {
+        for (int i = 0; i < cfgs.size(); i++) {
+            for (ThrowStatement throwStatement : throwStatements.get(i)) {
+                blackhole.consume(PathConditionAnalysis.getConditions(features.get(i), cfgs.get(i), throwStatement));
+            }
+        }
+    }
+
+    @Benchmark
+    public void inverseSymEx(Blackhole blackhole) {
+        for (int i = 0; i < features.size(); i++) {
+            blackhole.consume(SymbolicExecution.inverseSymEx(features.get(i), exceptionalPaths.get(i)));
+        }
+    }
+
+    @Benchmark
+    public void negateProducts(Blackhole blackhole) {
+        for (SumOfProducts conditions : exceptionalConditions) {
+            blackhole.consume(SymbolicExecution.inverseSymEx(conditions, new AnalysisBudget()));
+        }
+    }
+
+    @Benchmark
+    public void negateBdd(Blackhole blackhole) {
+        for (SumOfProducts conditions : exceptionalConditions) {
+            blackhole.consume(SymbolicExecution.inverseSymExBdd(conditions, new AnalysisBudget()));
+        }
+    }
+}
@@ -15,10 +15,22 @@ import edu.virginia.aid.data.MethodFeatures;
 public class MethodDifferences extends ArrayList<Difference> implements Comparable<MethodDifferences> {
 
     /**
-     * The method being tracked
+     * The method being tracked, or null once the differences have been detached from it
      */
     private MethodFeatures method;
 
+    // Description of the method, kept so the differences can be reported after they are detached
+    private String className;
+    private String methodName;
+    private String methodSignature;
+    private String filepath;
+    private int lineNumber;
+
+    /**
+     * The source code of the method, captured when the differences are detached
+     */
+    private String methodText;
+
     /**
      * Create a difference tracker with the given method
      *
@@ -26,6 +38,22 @@ public class MethodDifferences extends ArrayList<Difference> implements Comparab
      */
     public MethodDifferences(MethodFeatures method) {
         this.method = method;
+        this.className = method.getParentClass().getClassName();
+        this.methodName = method.getMethodName();
+        this.methodSignature = method.getMethodSignature().toString();
+        this.filepath = method.getFilepath();
+        this.lineNumber = method.getElementLineNumber();
+    }
+
+    /**
+     * Copies the method's source code and drops the reference to the method, so that the method's features,
+     * class and source file can be garbage collected while the differences are kept
+     */
+    public void detach() {
+        if (method != null) {
+            methodText = method.getElementText();
+            method = null;
+        }
     }
 
     /**
@@ -62,12 +90,39 @@ public class MethodDifferences extends ArrayList<Difference> implements Comparab
     /**
      * Gets the MethodFeatures associated with the differences
      *
-     * @return The MethodFeatures associated with the differences
+     * @return The MethodFeatures associated with the differences, or null if they have been detached
      */
     public MethodFeatures getMethod() {
         return this.method;
     }
 
+    /**
+     * Gets the name of the class containing the method
+     *
+     * @return The name of the class containing the method
+     */
+    public String getClassName() {
+        return className;
+    }
+
+    /**
+     * Gets the name of the method
+     *
+     * @return The name of the method
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * Gets the source code of the method
+     *
+     * @return The source code of the method
+     */
+    public String getMethodText() {
+        return method != null ? method.getElementText() : methodText;
+    }
+
     /**
      * Presents a human-readable representation of all differences in the method, sorted from highest
      * to lowest differenceScore
@@ -77,9 +132,9 @@ public class MethodDifferences extends ArrayList<Difference> implements Comparab
     @Override
     public String toString() {
     	DecimalFormat df = new DecimalFormat("0.000");
-        String result = "[" + df.format(getDifferenceScore()) + "] " + method.getParentClass().getClassName() +
-        		"." + method.getMethodSignature() + " (" + method.getFilepath() + ", line " +
-        		method.getElementLineNumber() + "):\n";
+        String result = "[" + df.format(getDifferenceScore()) + "] " + className +
+        		"." + methodSignature + " (" + filepath + ", line " +
+        		lineNumber + "):\n";
         Collections.sort(this);
         for (Difference difference : this) {
             result += "\t* " + difference.toString() + "\n";
@@ -12,9 +12,10 @@ import edu.virginia.aid.data.IdentifierProperties;
 public class MissingIdentifierDifference extends Difference {
 
     /**
-     * The identifier missing in the comments
+     * Description of the identifier missing in the comments. Only the description is kept, so that a
+     * difference does not hold on to the identifier's source file.
      */
-    private IdentifierProperties identifier;
+    private String description;
 
     /**
      * Create instance with a given identifier
@@ -25,7 +26,8 @@ public class MissingIdentifierDifference extends Difference {
     public MissingIdentifierDifference(IdentifierProperties identifier, double differenceScore) {
         super(differenceScore);
 
-        this.identifier = identifier;
+        this.description = "No reference to " + identifier.getContextString() + " '" + identifier.getName() + "' in comments (reads: "
+                + identifier.getReads() + ", writes: " + identifier.getWrites() + (identifier.isInReturnStatement() ? ", in return statment" : "") + ")";
     }
 
     /**
@@ -35,15 +37,12 @@ public class MissingIdentifierDifference extends Difference {
      */
     @Override
     public String toString() {
-        return "No reference to " + identifier.getContextString() + " '" + identifier.getName() + "' in comments (reads: "
-                + identifier.getReads() + ", writes: " + identifier.getWrites() + (identifier.isInReturnStatement() ? ", in return statment" : "") + ")" +
-                ": " + getDifferenceScore();
+        return description + ": " + getDifferenceScore();
     }
 
     @Override
     public String dumpData() {
     	DecimalFormat df = new DecimalFormat("0.000");
-    	return df.format(getDifferenceScore()) + ";" + "No reference to " + identifier.getContextString() + " '" + identifier.getName() + "' in comments (reads: "
-        + identifier.getReads() + ", writes: " + identifier.getWrites() + (identifier.isInReturnStatement() ? ", in return statment" : "") + ")" + ";";
+    	return df.format(getDifferenceScore()) + ";" + description + ";";
     }
 }
@@ -12,9 +12,9 @@ import edu.virginia.aid.symex.IdentifierValue;
 public class SuccessConditionDifference extends Difference {
 
     /**
-     * The condition that is missing from the comments
+     * The condition that is missing from the comments, in human-readable form
      */
-    private IdentifierValue condition;
+    private String condition;
 
     /**
      * Create a SuccessConditionDifference with the given condition and numeric weight
@@ -24,7 +24,7 @@ public class SuccessConditionDifference extends Difference {
      */
     public SuccessConditionDifference(IdentifierValue condition, double v) {
         super(v);
-        this.condition = condition;
+        this.condition = condition.toString();
     }
 
     /**
@@ -34,12 +34,12 @@ public class SuccessConditionDifference extends Difference {
      */
     @Override
     public String toString() {
-        return "Comments do not discuss the following condition for success: " + condition.toString() + ": " + getDifferenceScore();
+        return "Comments do not discuss the following condition for success: " + condition + ": " + getDifferenceScore();
     }
 
     @Override
     public String dumpData() {
     	DecimalFormat df = new DecimalFormat("0.000");
-    	return df.format(getDifferenceScore()) + ";" + "Comments do not discuss the following condition for success: " + condition.toString() + ";";
+    	return df.format(getDifferenceScore()) + ";" + "Comments do not discuss the following condition for success: " + condition + ";";
     }
 }
@@ -1,8 +1,11 @@
 package edu.virginia.aid.data;
 
 import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.core.dom.MethodDeclaration;
@@ -29,6 +32,16 @@ public class ClassInformation extends SourceElement {
      */
     private List<IdentifierProperties> fields;
 
+    /**
+     * The first field added with each name, for looking fields up by name
+     */
+    private Map<String, IdentifierProperties> fieldsByName;
+
+    /**
+     * Read-only view of the names of the fields
+     */
+    private Set<String> fieldNames;
+
     /**
      * List of methods declared in the class
      */
@@ -39,6 +52,11 @@ public class ClassInformation extends SourceElement {
      */
     private List<CommentInfo> comments;
 
+    /**
+     * The comments inside each method, keyed by the method's start and end positions
+     */
+    private Map<Long, List<CommentInfo>> methodComments;
+
     /**
      * Creates a ClassInformation with the following properties:
      *
@@ -54,8 +72,11 @@ public class ClassInformation extends SourceElement {
         this.className = className;
         this.filepath = filepath;
         this.fields = new ArrayList<>();
+        this.fieldsByName = new HashMap<>();
+        this.fieldNames = Collections.unmodifiableSet(fieldsByName.keySet());
         this.methodDeclarations = new ArrayList<>();
         this.comments = new ArrayList<>();
+        this.methodComments = new HashMap<>();
     }
 
     /**
@@ -83,6 +104,7 @@ public class ClassInformation extends SourceElement {
      */
     public void addField(IdentifierProperties field) {
         fields.add(field);
+        fieldsByName.putIfAbsent(field.getName(), field);
     }
 
     /**
@@ -92,27 +114,16 @@ public class ClassInformation extends SourceElement {
      * @return The field with the given name (or null if none exists)
      */
     public IdentifierProperties getFieldByName(String name) {
-        for (IdentifierProperties field : fields) {
-            if (field.getName().equals(name)) {
-                return field;
-            }
-        }
-
-        return null;
+        return fieldsByName.get(name);
     }
 
     /**
      * Finds and returns all field names in this class
      *
-     * @return Set of all field names in the class
+     * @return Read-only set of all field names in the class, which reflects fields added later
      */
     public Set<String> getFieldNames() {
-        Set<String> names = new HashSet<String>();
-        for (IdentifierProperties field : fields) {
-            names.add(field.getName());
-        }
-
-        return names;
+        return fieldNames;
     }
 
     /**
@@ -133,6 +144,14 @@ public class ClassInformation extends SourceElement {
         return methodDeclarations;
     }
 
+    /**
+     * Drops the MethodDeclarations associated with the class. Once every method's features have been
+     * extracted nothing refers back to the AST, so this lets the whole compilation unit be collected.
+     */
+    public void clearMethodDeclarations() {
+        methodDeclarations = new ArrayList<>();
+    }
+
     /**
      * Returns all of the Comments in this class.
      * 
@@ -151,6 +170,61 @@ public class ClassInformation extends SourceElement {
     	comments.add(comment);
     }
 
+    /**
+     * Works out which comments lie inside each method declaration, so that the comments of a method do not
+     * have to be searched for every time they are needed. Comments and methods are both sorted by start
+     * position and swept together, so each method only looks at the comments from its own start onwards. A
+     * comment inside a method nested in another belongs to both of them.
+     */
+    public void assignMethodComments() {
+        List<CommentInfo> sortedComments = new ArrayList<>(comments);
+        sortedComments.sort(Comparator.comparingInt(CommentInfo::getStartPos));
+        List<MethodDeclaration> sortedMethods = new ArrayList<>(methodDeclarations);
+        sortedMethods.sort(Comparator.comparingInt(MethodDeclaration::getStartPosition));
+
+        int firstComment = 0;
+        for (MethodDeclaration method : sortedMethods) {
+            int startPos = method.getStartPosition();
+            int endPos = startPos + method.getLength();
+            while (firstComment < sortedComments.size() && sortedComments.get(firstComment).getStartPos() < startPos) {
+                firstComment++;
+            }
+
+            List<CommentInfo> commentsInMethod = new ArrayList<>();
+            for (int i = firstComment; i < sortedComments.size() && sortedComments.get(i).getStartPos() <= endPos; i++) {
+                if (sortedComments.get(i).getEndPos() <= endPos) {
+                    commentsInMethod.add(sortedComments.get(i));
+                }
+            }
+            methodComments.put(getRangeKey(startPos, endPos), Collections.unmodifiableList(commentsInMethod));
+        }
+    }
+
+    /**
+     * Gets the comments that lie inside a method. Comments assigned by {@link #assignMethodComments()} are
+     * returned directly; for a method that was not assigned any, such as one restored from the analysis cache,
+     * the class's comments are searched once and the result is kept.
+     *
+     * @param startPos The position of the first character of the method
+     * @param endPos The position of the last character of the method
+     * @return Read-only list of the comments inside the method, in source order
+     */
+    public List<CommentInfo> getMethodComments(int startPos, int endPos) {
+        return methodComments.computeIfAbsent(getRangeKey(startPos, endPos), key -> {
+            List<CommentInfo> commentsInMethod = new ArrayList<>();
+            for (CommentInfo comment : comments) {
+                if (comment.getStartPos() >= startPos && comment.getEndPos() <= endPos) {
+                    commentsInMethod.add(comment);
+                }
+            }
+            return Collections.unmodifiableList(commentsInMethod);
+        });
+    }
+
+    private static long getRangeKey(int startPos, int endPos) {
+        return ((long) startPos << 32) | (endPos & 0xffffffffL);
+    }
+
     /**
      * Converts the class's information to a human-readable form
      *
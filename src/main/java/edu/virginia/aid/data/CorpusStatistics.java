@@ -0,0 +1,111 @@
+package edu.virginia.aid.data;
+
+import java.util.Arrays;
+
+/**
+ * Document frequency information for all of the methods in the corpus being analyzed. Each method is
+ * treated as a single document, and the table is built in one pass over the methods so that IDF values
+ * can be looked up directly instead of rescanning the corpus for each word. Words are numbered by the
+ * corpus's {@link TermDictionary}, and document frequencies are kept in an array indexed by word id.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class CorpusStatistics {
+
+    /**
+     * The number of documents (methods) added to the corpus
+     */
+    private int documentCount;
+
+    /**
+     * The numbering of the words in the corpus
+     */
+    private final TermDictionary terms;
+
+    /**
+     * The number of documents that contain each word, indexed by word id
+     */
+    private int[] documentFrequencies;
+
+    /**
+     * Creates an empty corpus
+     */
+    public CorpusStatistics() {
+        this.documentCount = 0;
+        this.terms = new TermDictionary();
+        this.documentFrequencies = new int[64];
+    }
+
+    /**
+     * Gets the numbering of the words in the corpus, which the documents added to it must use
+     *
+     * @return The corpus's term dictionary
+     */
+    public TermDictionary getTerms() {
+        return terms;
+    }
+
+    /**
+     * Adds a document to the corpus, counting each of its words once
+     *
+     * @param wordFrequencies Vector of the words in the document, numbered by this corpus's dictionary
+     */
+    public void addDocument(TermVector wordFrequencies) {
+        documentCount++;
+        if (documentFrequencies.length < terms.size()) {
+            documentFrequencies = Arrays.copyOf(documentFrequencies, Math.max(terms.size(), 2 * documentFrequencies.length));
+        }
+        for (int i = 0; i < wordFrequencies.size(); i++) {
+            documentFrequencies[wordFrequencies.getTerm(i)]++;
+        }
+    }
+
+    /**
+     * Gets the number of documents in the corpus
+     *
+     * @return The number of documents in the corpus
+     */
+    public int getDocumentCount() {
+        return documentCount;
+    }
+
+    /**
+     * Gets the number of documents in the corpus that contain the given word
+     *
+     * @param word The word to look up
+     * @return The number of documents containing the word
+     */
+    public int getDocumentFrequency(String word) {
+        return getDocumentFrequency(terms.findId(word));
+    }
+
+    /**
+     * Gets the number of documents in the corpus that contain the word with the given id
+     *
+     * @param term The id of the word, or -1 for a word not in the dictionary
+     * @return The number of documents containing the word
+     */
+    public int getDocumentFrequency(int term) {
+        return term >= 0 && term < documentFrequencies.length ? documentFrequencies[term] : 0;
+    }
+
+    /**
+     * Calculates the logarithmically scaled inverse document frequency of a word
+     *
+     * @param word The word to look up
+     * @return The IDF value for the word
+     */
+    public double getInverseDocumentFrequency(String word) {
+        return getInverseDocumentFrequency(terms.findId(word));
+    }
+
+    /**
+     * Calculates the logarithmically scaled inverse document frequency of the word with the given id
+     *
+     * @param term The id of the word
+     * @return The IDF value for the word
+     */
+    public double getInverseDocumentFrequency(int term) {
+        return Math.log((double) documentCount / getDocumentFrequency(term));
+    }
+}
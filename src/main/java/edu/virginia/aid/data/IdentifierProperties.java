@@ -159,6 +159,15 @@ public class IdentifierProperties extends SourceElement implements StringListabl
 		this.name = StringHelper.splitCamelCase(name);
 	}
 
+    /**
+     * Sets the name of the identifier to a name that has already been split into words
+     *
+     * @param splitName The new name for the identifier, already split based on camel case
+     */
+	public void setSplitName(String splitName) {
+		this.name = splitName;
+	}
+
     /**
      * Updates the processed name of the identifier with the result of a processing step
      *
@@ -1,17 +1,13 @@
 package edu.virginia.aid.data;
 
-import edu.mit.jwi.IDictionary;
-import edu.mit.jwi.item.IIndexWord;
-import edu.mit.jwi.item.IWord;
-import edu.mit.jwi.item.IWordID;
-import edu.mit.jwi.item.POS;
 import edu.virginia.aid.comparison.*;
 import edu.virginia.aid.symex.BooleanAndList;
 import edu.virginia.aid.symex.IdentifierValue;
 import edu.virginia.aid.symex.SumOfProducts;
+import edu.virginia.aid.util.AnalysisBudget;
+import edu.virginia.aid.util.SynonymCache;
 import org.eclipse.jdt.core.dom.Javadoc;
 import org.eclipse.jdt.core.dom.TagElement;
-import org.eclipse.jdt.core.dom.Type;
 import weka.core.Attribute;
 import weka.core.FastVector;
 import weka.core.Instance;
@@ -38,15 +34,20 @@ public class MethodFeatures extends SourceElement {
      */
     private ClassInformation parentClass;
 
+    /**
+     * The comments inside the method, or null if they have not been looked up yet
+     */
+    private List<CommentInfo> comments;
+
     /**
      * The name of this method
      */
     private String methodName;
 
     /**
-     * The static return type of this method
+     * The name of the static return type of this method, or null for constructors
      */
-    private Type returnType;
+    private String returnType;
 
     /**
      * The name of the method, optionally processed for comparison
@@ -74,24 +75,40 @@ public class MethodFeatures extends SourceElement {
     private ScopeProperties scope;
 
     /**
-     * The Javadoc comment provided with the method in source code
+     * The full text of the Javadoc comment provided with the method in source code, or null if there is none.
+     * Only the text is kept so that the method's AST can be released once its features have been extracted.
      */
-    private Javadoc javadoc;
+    private String javadocText;
 
     /**
-     * Map of words to TF/IDF values
+     * The summary portion of the Javadoc comment, or the empty string if there is none
      */
-    private Map<String, Double> TFIDF;
+    private String javadocSummary;
 
     /**
-     * Map of words to the number of times each occurs
+     * Map of Javadoc tag names (e.g. @param) to the text of the first fragment of the first tag with that name
      */
-    private Map<String, Integer> wordFrequencies;
+    private Map<String, String> javadocTags;
 
     /**
-     * Set of all words in the corpus of the program analyzed, not including comments
+     * TF/IDF value of each word, numbered by the dictionary in terms
      */
-    private Set<String> allWordsNoComments;
+    private TermVector TFIDF;
+
+    /**
+     * The number of times each word occurs, numbered by the dictionary in terms
+     */
+    private TermVector wordFrequencies;
+
+    /**
+     * The words of the method, not including comments, numbered by the dictionary in terms
+     */
+    private TermVector allWordsNoComments;
+
+    /**
+     * The dictionary numbering the words in wordFrequencies, allWordsNoComments and TFIDF
+     */
+    private TermDictionary terms;
 
     /**
      * The main action performed by the method, as determined by the tool
@@ -109,6 +126,16 @@ public class MethodFeatures extends SourceElement {
      */
     private SumOfProducts conditionsForSuccess = null;
 
+    /**
+     * Whether the conditions for success were given up on because the method's analysis budget ran out
+     */
+    private boolean conditionsForSuccessIncomplete = false;
+
+    /**
+     * The limits of the analysis budget that the method's analysis reached
+     */
+    private Set<AnalysisBudget.Limit> exceededBudgetLimits = EnumSet.noneOf(AnalysisBudget.Limit.class);
+
     // Boolean parameters
     public static final String RETURNS_BOOLEAN = "returns_boolean";
     public static final String IS_CONSTRUCTOR = "is_constructor";
@@ -125,13 +152,13 @@ public class MethodFeatures extends SourceElement {
      * @param methodName The name of the current method
      * @param parentClass The parent class of the current method
      * @param filepath The filepath for the class containing the current method
-     * @param returnType The return type of the current method
+     * @param returnType The name of the return type of the current method
      * @param startPos The start position in the file of the current method
      * @param endPos The end position in the file of the current method
      * @param sourceContext Additional source context information for the current method
      */
     public MethodFeatures(String methodName, ClassInformation parentClass, String filepath,
-                          Type returnType, int startPos, int endPos, final SourceContext sourceContext) {
+                          String returnType, int startPos, int endPos, final SourceContext sourceContext) {
         super(startPos, endPos, sourceContext);
 
         this.methodName = methodName;
@@ -142,10 +169,13 @@ public class MethodFeatures extends SourceElement {
         this.stringFeatures = new HashMap<>();
         this.numericFeatures = new HashMap<>();
         this.scope = new ScopeProperties();
-        this.javadoc = null;
-        this.TFIDF = new HashMap<>();
+        this.javadocText = null;
+        this.javadocSummary = "";
+        this.javadocTags = Collections.emptyMap();
+        this.TFIDF = TermVector.EMPTY;
         this.wordFrequencies = null;
         this.allWordsNoComments = null;
+        this.terms = null;
 
         this.processedMethodName = methodName;
     }
@@ -196,11 +226,11 @@ public class MethodFeatures extends SourceElement {
     }
 
     /**
-     * Gets and returns the return type
+     * Gets and returns the name of the return type
      *
-     * @return The return type
+     * @return The name of the return type, or null for constructors
      */
-    public Type getReturnType() {
+    public String getReturnType() {
         return returnType;
     }
 
@@ -365,72 +395,98 @@ public class MethodFeatures extends SourceElement {
         this.conditionsForSuccess = conditionsForSuccess;
     }
 
+    /**
+     * Checks whether the tool stopped looking for the conditions for success because the method's analysis
+     * budget ran out. If so the conditions for success are unknown rather than trivially true.
+     *
+     * @return Whether the conditions for success are incomplete
+     */
+    public boolean isConditionsForSuccessIncomplete() {
+        return conditionsForSuccessIncomplete;
+    }
+
+    /**
+     * Sets whether the conditions for success are incomplete because the method's analysis budget ran out
+     *
+     * @param conditionsForSuccessIncomplete Whether the conditions for success are incomplete
+     */
+    public void setConditionsForSuccessIncomplete(boolean conditionsForSuccessIncomplete) {
+        this.conditionsForSuccessIncomplete = conditionsForSuccessIncomplete;
+    }
+
+    /**
+     * Gets the limits of the analysis budget that were reached while analyzing the method
+     *
+     * @return The limits reached, empty if the analysis stayed within the budget
+     */
+    public Set<AnalysisBudget.Limit> getExceededBudgetLimits() {
+        return exceededBudgetLimits;
+    }
+
+    /**
+     * Sets the limits of the analysis budget that were reached while analyzing the method
+     *
+     * @param exceededBudgetLimits The limits reached
+     */
+    public void setExceededBudgetLimits(Set<AnalysisBudget.Limit> exceededBudgetLimits) {
+        this.exceededBudgetLimits = EnumSet.noneOf(AnalysisBudget.Limit.class);
+        this.exceededBudgetLimits.addAll(exceededBudgetLimits);
+    }
+
     /**
      * Getter for word frequencies, calculating them if necessary.
      * 
-     * @return Word frequencies for this method.
+     * @param terms The dictionary numbering the words of the corpus
+     * @return Word frequencies for this method, numbered by the given dictionary.
      */
-    public Map<String, Integer> getWordFrequencies() {
-    	if (wordFrequencies == null) {
-    		calculateWordFrequencies();
+    public TermVector getWordFrequencies(TermDictionary terms) {
+    	if (wordFrequencies == null || this.terms != terms) {
+    		calculateWordFrequencies(terms);
     	}
     	return wordFrequencies;
     }
 
     /**
-     * Calculates the word frequencies for this method, and return a list of all the words in the method.
+     * Calculates the word frequencies for this method, along with the set of all the words in the method other
+     * than those in comments. Each word is counted once, however many times it occurs.
+     *
+     * @param terms The dictionary numbering the words of the corpus
      */
-    public void calculateWordFrequencies() {
-    	wordFrequencies = new HashMap<>();
-    	allWordsNoComments= new HashSet<>();
-    	
-    	incrementFrequenciesMap(processedMethodName);
-		allWordsNoComments.add(processedMethodName);
-		
-    	for (IdentifierProperties identifier : scope.getParameters()) {
-    		for (String s : identifier.getData()) {
-    			incrementFrequenciesMap(s);
-    			allWordsNoComments.add(s);
-    		}
-    	}
-    	for (IdentifierProperties identifier : scope.getLocalVariables()) {
-    		for (String s : identifier.getData()) {
-    			incrementFrequenciesMap(s);
-    			allWordsNoComments.add(s);
-    		}
-    	}
-    	for (IdentifierProperties identifier : scope.getFields()) {
+    public void calculateWordFrequencies(TermDictionary terms) {
+    	this.terms = terms;
+    	int[] words = new int[16];
+    	int wordCount = 0;
+
+    	words[wordCount++] = terms.getId(processedMethodName);
+
+    	List<IdentifierProperties> identifiers = new ArrayList<>(scope.getParameters());
+    	identifiers.addAll(scope.getLocalVariables());
+    	identifiers.addAll(scope.getFields());
+    	for (IdentifierProperties identifier : identifiers) {
     		for (String s : identifier.getData()) {
-    			incrementFrequenciesMap(s);
-    			allWordsNoComments.add(s);
+    			if (wordCount == words.length) {
+    				words = Arrays.copyOf(words, 2 * wordCount);
+    			}
+    			words[wordCount++] = terms.getId(s);
     		}
     	}
+    	int wordCountNoComments = wordCount;
+
+    	List<String> otherWords = new ArrayList<>();
     	for (CommentInfo comment : getComments()) {
-    		for (String s : comment.getData()) {
-    			incrementFrequenciesMap(s);
-    		}
+    		otherWords.addAll(comment.getData());
     	}
-
-        if (javadoc != null) {
-            String[] javadocWords = javadoc.toString().split(" ");
-            for (String s : javadocWords) {
-    			incrementFrequenciesMap(s);
-            }
+        if (javadocText != null) {
+            otherWords.addAll(Arrays.asList(javadocText.split(" ")));
         }
-    }
-    
-    /**
-     * Helper method to increment the frequency for a given string.
-     * 
-     * @param s The string whose frequency should be incremented.
-     */
-    private void incrementFrequenciesMap(String s) {
-    	Integer i = this.wordFrequencies.get(s);
-    	if (i == null) {
-    		this.wordFrequencies.put(s, 1);
-    	} else {
-    		this.wordFrequencies.put(s, i);
+    	words = Arrays.copyOf(words, wordCount + otherWords.size());
+    	for (String s : otherWords) {
+    		words[wordCount++] = terms.getId(s);
     	}
+
+    	// Sorting the ids in place would lose which of them came from comments, so each set gets its own copy
+    	allWordsNoComments = TermVector.ofDistinctTerms(Arrays.copyOf(words, wordCountNoComments), wordCountNoComments, 1);
+    	wordFrequencies = TermVector.ofDistinctTerms(words, wordCount, 1);
     }
     
     /**
@@ -449,41 +505,74 @@ public class MethodFeatures extends SourceElement {
     }
 
     /**
-     * Gets and returns all of the comments associated with the method
+     * Gets and returns all of the comments associated with the method, as assigned by the parent class
      *
-     * @return The list of all comments associated with the method
+     * @return Read-only list of all comments associated with the method
      */
     public List<CommentInfo> getComments() {
-        List<CommentInfo> comments = parentClass.getComments();
-
-        // Process comments to only show ones for the current method.
-        List<CommentInfo> processedComments = new ArrayList<CommentInfo>();
-        for (CommentInfo commentInfo : comments) {
-        	if (commentInfo.getStartPos() >= this.getStartPos()
-        			&& commentInfo.getEndPos() <= this.getEndPos()) {
-        		processedComments.add(commentInfo);
-        	}
+        if (comments == null) {
+            comments = parentClass.getMethodComments(getStartPos(), getEndPos());
         }
-        
-        return processedComments;
+
+        return comments;
     }
 
     /**
-     * Gets and returns the javadoc for this method
+     * Sets the javadoc for this method, keeping its text, summary and tags but not the AST node itself
      * 
-     * @return The javadoc for this method
+     * @param javadoc The new javadoc to set
      */
-    public Javadoc getJavadoc() {
-        return javadoc;
+    public void setJavadoc(Javadoc javadoc) {
+        this.javadocText = null;
+        this.javadocSummary = "";
+        this.javadocTags = Collections.emptyMap();
+
+        if (javadoc != null) {
+            this.javadocText = javadoc.toString();
+            for (TagElement tag : (List<TagElement>) javadoc.tags()) {
+                if (tag.getTagName() == null) {
+                    this.javadocSummary = tag.toString();
+                } else if (!javadocTags.containsKey(tag.getTagName())) {
+                    // Most methods have no tags, so the map is only created for the first one
+                    if (javadocTags.isEmpty()) {
+                        javadocTags = new HashMap<>();
+                    }
+                    javadocTags.put(tag.getTagName(), tag.fragments().isEmpty() ? null : tag.fragments().get(0).toString().trim());
+                }
+            }
+        }
     }
 
     /**
-     * Sets the javadoc for this method
-     * 
-     * @param javadoc The new javadoc to set
+     * Sets the javadoc text and summary for this method without an AST node, as when restoring a
+     * previously analyzed method
+     *
+     * @param javadocText The full text of the javadoc, or null if the method has none
+     * @param javadocSummary The summary portion of the javadoc, or the empty string if there is none
      */
-    public void setJavadoc(Javadoc javadoc) {
-        this.javadoc = javadoc;
+    public void setJavadoc(String javadocText, String javadocSummary) {
+        this.javadocText = javadocText;
+        this.javadocSummary = javadocSummary;
+        this.javadocTags = Collections.emptyMap();
+    }
+
+    /**
+     * Gets the full text of the javadoc for this method
+     *
+     * @return The text of the javadoc, or null if the method has none
+     */
+    public String getJavadocText() {
+        return javadocText;
+    }
+
+    /**
+     * Gets the text of the first fragment of the first javadoc tag with the given name
+     *
+     * @param tagName The name of the tag, including the @ (e.g. @param)
+     * @return The trimmed text of the tag's first fragment, or null if there is no such tag or it is empty
+     */
+    public String getJavadocTag(String tagName) {
+        return javadocTags.get(tagName);
     }
 
     /**
@@ -498,15 +587,15 @@ public class MethodFeatures extends SourceElement {
     /**
      * Find and return a list of differences between the method contents and its comments
      *
-     * @param wordNetDictionary A WordNet dictionary used to detect synsets.
+     * @param synonymCache Cached WordNet lookups used to detect synsets.
      * @return The list of differences between the comments and the method
      */
-    public MethodDifferences getDifferences(IDictionary wordNetDictionary) {
+    public MethodDifferences getDifferences(SynonymCache synonymCache) {
         MethodDifferences differences = new MethodDifferences(this);
 
         // Process the method
         {
-            boolean foundInComment = containedInComments(wordNetDictionary, processedMethodName);
+            boolean foundInComment = containedInComments(synonymCache, processedMethodName);
 
             if (!foundInComment) {
             	String differenceMessage = "The method name (" + methodName + ") is not discussed in the comments";
@@ -519,7 +608,7 @@ public class MethodFeatures extends SourceElement {
         for (IdentifierProperties field : scope.getFields()) {
 
             String identifier = field.getProcessedName();
-            boolean foundInComment = containedInComments(wordNetDictionary, identifier);
+            boolean foundInComment = containedInComments(synonymCache, identifier);
             
             if (!foundInComment) {
                 double differenceScore = field.getReadWriteDifferenceValue(scope) * getTFIDF(identifier);
@@ -533,7 +622,7 @@ public class MethodFeatures extends SourceElement {
         for (IdentifierProperties parameter : scope.getParameters()) {
 
             String identifier = parameter.getProcessedName();
-            boolean foundInComment = containedInComments(wordNetDictionary, identifier);
+            boolean foundInComment = containedInComments(synonymCache, identifier);
             
             if (!foundInComment) {
                 double differenceScore = parameter.getReadWriteDifferenceValue(scope) * getTFIDF(identifier);
@@ -543,18 +632,18 @@ public class MethodFeatures extends SourceElement {
             }
         }
 
-        if (!primaryAction.isEmpty() && !containedInComments(wordNetDictionary, primaryAction)) {
+        if (!primaryAction.isEmpty() && !containedInComments(synonymCache, primaryAction)) {
             differences.add(new GenericDifference("The primary method action (" + primaryAction + ") is not discussed in the comments", DifferenceWeights.PRIMARY_VERB * getTFIDF(primaryAction)));
         }
 
-        if (!primaryObject.isEmpty() && !containedInComments(wordNetDictionary, primaryObject)) {
+        if (!primaryObject.isEmpty() && !containedInComments(synonymCache, primaryObject)) {
             differences.add(new GenericDifference("The primary object acted upon (" + primaryObject + ") is not discussed in the comments", DifferenceWeights.PRIMARY_OBJECT * getTFIDF(primaryObject)));
         }
 
         // Process conditions for success
         if (conditionsForSuccess != null) {
             for (BooleanAndList product : conditionsForSuccess.getProducts()) {
-                if (!containedInComments(wordNetDictionary, product.toString())) {
+                if (!containedInComments(synonymCache, product.toString())) {
                     differences.add(new SuccessConditionDifference(product,
                             DifferenceWeights.CONDITIONS_FOR_SUCCESS *
                                     getTFIDF(product.toString()) /
@@ -569,46 +658,25 @@ public class MethodFeatures extends SourceElement {
     /**
      * Calculates all TFIDF values for this method.
      * 
-     * @param allProjectWordFrequencies A list containing a list of words in each method in the project.
+     * @param corpus Document frequencies for all of the methods in the project.
      */
-    public void calculateTFIDF(List<Map<String, Integer>> allProjectWordFrequencies) {
+    public void calculateTFIDF(CorpusStatistics corpus) {
     	// Shouldn't happen here, but just in case.
-    	if (wordFrequencies == null) {
-    		calculateWordFrequencies();
+    	if (wordFrequencies == null || terms != corpus.getTerms()) {
+    		calculateWordFrequencies(corpus.getTerms());
     	}
-    	
-    	Map<String, Double> TF = new HashMap<>();
-    	Map<String, Double> IDF = new HashMap<>();
-
-        for (String s : allWordsNoComments) {
-        	if (!TFIDF.containsKey(s)) {
-        		double tf = 0;
-            	if (!TF.containsKey(s)) {
-                	// Calculate logarithmically scaled TF frequency
-            		tf = 1 + Math.log(wordFrequencies.get(s));
-            		TF.put(s, tf);
-            	} else {
-            		tf = TF.get(s);
-            	}
-
-            	double idf = 0;
-            	if (!IDF.containsKey(s)) {
-            		// Calculate logarithmically scaled IDF frequency
-            		double totalDocs = allProjectWordFrequencies.size();
-            		double numDocsContainingWord = 0;
-            		for (Map<String, Integer> curMap : allProjectWordFrequencies) {
-            			numDocsContainingWord += curMap.get(s) != null ? 1 : 0;
-            		}
-            		idf = Math.log(totalDocs / numDocsContainingWord);
-            		IDF.put(s, idf);
-            	} else {
-            		idf = IDF.get(s);
-            	}
-            	
-            	double tfidf = tf*idf;
-            	TFIDF.put(s, tfidf);
-        	}
+
+    	int[] tfidfTerms = new int[allWordsNoComments.size()];
+    	double[] tfidfValues = new double[allWordsNoComments.size()];
+        for (int i = 0; i < allWordsNoComments.size(); i++) {
+        	int term = allWordsNoComments.getTerm(i);
+        	// Calculate logarithmically scaled TF and IDF frequencies
+        	double tf = 1 + Math.log(wordFrequencies.get(term, 0));
+        	double idf = corpus.getInverseDocumentFrequency(term);
+        	tfidfTerms[i] = term;
+        	tfidfValues[i] = tf*idf;
         }
+        TFIDF = new TermVector(tfidfTerms, tfidfValues);
 	}
 
     /**
@@ -620,8 +688,8 @@ public class MethodFeatures extends SourceElement {
     public double getTFIDF(String s) {
         double totalTFIDF = 0;
         for (String word : s.split(" ")) {
-            Double retVal = TFIDF.get(word);
-            totalTFIDF += (retVal != null ? retVal : 1.0);
+            int term = terms != null ? terms.findId(word) : -1;
+            totalTFIDF += (term >= 0 ? TFIDF.get(term, 1.0) : 1.0);
         }
         return Math.min(1.0, totalTFIDF / s.split(" ").length);
     }
@@ -629,36 +697,17 @@ public class MethodFeatures extends SourceElement {
     /**
      * Checks whether a string is contained within the text of the method's comments
      *
-     * @param wordNetDictionary A WordNet dictionary used to detect synsets.
+     * @param synonymCache Cached WordNet lookups used to detect synsets.
      * @param term The term to search for
      * @return Whether or not the term was found in the comments
      */
-    public boolean containedInComments(IDictionary wordNetDictionary, String term) {
+    public boolean containedInComments(SynonymCache synonymCache, String term) {
 
     	// Don't do anything if it's empty string, space, etc. as this breaks JWI
     	if (term.isEmpty()) return false;
     	
-    	// Create set of synonyms with just the term, build it up with WordNet through JWI.
-		Set<String> synonyms = new HashSet<>();
-		synonyms.add(term);
-
-		// Check each part of speech for thoroughness.
-		for (POS pos : new POS[]{POS.NOUN, POS.ADJECTIVE, POS.ADVERB, POS.VERB}) {
-			// Get index word, verify it exists.
-			IIndexWord idxWord = wordNetDictionary.getIndexWord(term, pos);
-			if (idxWord == null) continue;
-			// Get all word IDs for this index word.
-			for (IWordID wordID : idxWord.getWordIDs()) {
-				// Get word for this wordID and verify it exists.
-				IWord word = wordNetDictionary.getWord(wordID);
-				if (word == null) continue;
-				// Add this word's synset word lemmas to the list of synonyms.
-				for (IWord synonym : word.getSynset().getWords()) {
-					synonyms.add(synonym.getLemma());
-				}
-			}
-		}
-    	
+        Set<String> synonyms = synonymCache.getSynonyms(term);
+
         boolean foundInComments = false;
 
         String javadocSummary = getJavadocSummary();
@@ -743,17 +792,7 @@ public class MethodFeatures extends SourceElement {
      * @return the summary portion of the method's Javadoc, or empty string if there is none
      */
     public String getJavadocSummary() {
-        String summary = "";
-
-        if (javadoc != null) {
-            for (TagElement tag : (List<TagElement>) javadoc.tags()) {
-                if (tag.getTagName() == null) {
-                    summary = tag.toString();
-                }
-            }
-        }
-
-        return summary;
+        return javadocSummary;
     }
 
     /**
@@ -1,14 +1,23 @@
 package edu.virginia.aid.data;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+
+import edu.virginia.aid.data.IdentifierProperties.IdentifierContext;
 
 /**
  * Container and associated operations for all of the identifiers that are in scope for a certain block of code.
  *
+ * Identifiers are indexed by name and by context as they are added, so that resolving a name is a hash lookup
+ * and listing the identifiers of one context does not filter or copy the whole list. An identifier is indexed
+ * under the name and context it has when it is added, so both must be set before it is added to a scope.
+ *
  * @author Matt Pearson-Beck & Jeff Principe
  */
 public class ScopeProperties {
@@ -16,7 +25,27 @@ public class ScopeProperties {
     /**
      * The list of identifiers in scope
      */
-    public List<IdentifierProperties> identifiers;
+    private final List<IdentifierProperties> identifiers = new ArrayList<>();
+
+    /**
+     * Read-only view of the identifiers in scope
+     */
+    private final List<IdentifierProperties> identifiersView = Collections.unmodifiableList(identifiers);
+
+    /**
+     * For each context, the identifiers with that context in the order they were added
+     */
+    private final Map<IdentifierContext, List<IdentifierProperties>> identifiersByContext = new EnumMap<>(IdentifierContext.class);
+
+    /**
+     * For each context, read-only views of the lists in identifiersByContext
+     */
+    private final Map<IdentifierContext, List<IdentifierProperties>> identifiersByContextViews = new EnumMap<>(IdentifierContext.class);
+
+    /**
+     * For each context, the first identifier added with each name
+     */
+    private final Map<IdentifierContext, Map<String, IdentifierProperties>> identifiersByName = new EnumMap<>(IdentifierContext.class);
 
     /**
      * The scope for the containing block/class
@@ -27,7 +56,12 @@ public class ScopeProperties {
      * Creates a new ScopeProperties with no identifiers in scope
      */
     public ScopeProperties() {
-        identifiers = new ArrayList<>();
+        for (IdentifierContext context : IdentifierContext.values()) {
+            List<IdentifierProperties> contextIdentifiers = new ArrayList<>();
+            identifiersByContext.put(context, contextIdentifiers);
+            identifiersByContextViews.put(context, Collections.unmodifiableList(contextIdentifiers));
+            identifiersByName.put(context, new HashMap<>());
+        }
     }
 
     /**
@@ -36,7 +70,7 @@ public class ScopeProperties {
      * @param parent The parent scope of this scope
      */
     public ScopeProperties(ScopeProperties parent) {
-        identifiers = new ArrayList<>();
+        this();
         parentScope = parent;
     }
 
@@ -47,6 +81,12 @@ public class ScopeProperties {
      */
     public void addVariable(IdentifierProperties identifier) {
         identifiers.add(identifier);
+
+        IdentifierContext context = identifier.getContext();
+        if (context != null) {
+            identifiersByContext.get(context).add(identifier);
+            identifiersByName.get(context).putIfAbsent(identifier.getName(), identifier);
+        }
     }
 
     /**
@@ -127,10 +167,7 @@ public class ScopeProperties {
      * @return Local variable with name or null if none exists
      */
     public IdentifierProperties getLocalVariable(String name) {
-        return searchIdentifierSet(name, identifiers
-                .stream()
-                .filter(p -> p.getContext() == IdentifierProperties.IdentifierContext.LOCAL_VARIABLE)
-                .collect(Collectors.toSet()));
+        return identifiersByName.get(IdentifierContext.LOCAL_VARIABLE).get(name);
     }
 
     /**
@@ -140,10 +177,7 @@ public class ScopeProperties {
      * @return Parameter with name or null if none exists
      */
     public IdentifierProperties getParameter(String name) {
-        return searchIdentifierSet(name, identifiers
-                .stream()
-                .filter(p -> p.getContext() == IdentifierProperties.IdentifierContext.FORMAL_PARAMETER)
-                .collect(Collectors.toSet()));
+        return identifiersByName.get(IdentifierContext.FORMAL_PARAMETER).get(name);
     }
 
     /**
@@ -153,73 +187,43 @@ public class ScopeProperties {
      * @return Field with the name or null if none exists
      */
     public IdentifierProperties getField(String name) {
-        return searchIdentifierSet(name, identifiers
-                .stream()
-                .filter(p -> p.getContext() == IdentifierProperties.IdentifierContext.FIELD)
-                .collect(Collectors.toSet()));
+        return identifiersByName.get(IdentifierContext.FIELD).get(name);
     }
 
     /**
      * Gets a list of all identifiers in the scope
      *
-     * @return List of all identifiers in the scope
+     * @return Read-only list of all identifiers in the scope
      */
     public List<IdentifierProperties> getIdentifiers() {
-        return identifiers;
-    }
-
-    /**
-     * Private helper method which finds and returns an identifier from a set if
-     * its name matches the search name, or null if it is not found
-     *
-     * @param name The name of the variable to find
-     * @param set The set to search for the variable name
-     * @return The identifier with the given name or null if not found
-     */
-    private static IdentifierProperties searchIdentifierSet(String name, Set<IdentifierProperties> set) {
-        for (IdentifierProperties identifier : set) {
-            if (identifier.getName().equals(name)) {
-                return identifier;
-            }
-        }
-
-        return null;
+        return identifiersView;
     }
 
     /**
      * Returns all identifiers with type local variable
      *
-     * @return Local variables
+     * @return Read-only list of local variables
      */
     public List<IdentifierProperties> getLocalVariables() {
-        return identifiers
-                .stream()
-                .filter(p -> p.getContext() == IdentifierProperties.IdentifierContext.LOCAL_VARIABLE)
-                .collect(Collectors.toList());
+        return identifiersByContextViews.get(IdentifierContext.LOCAL_VARIABLE);
     }
 
     /**
      * Returns all identifiers in scope with type parameter
      *
-     * @return Parameters
+     * @return Read-only list of parameters
      */
     public List<IdentifierProperties> getParameters() {
-        return identifiers
-                .stream()
-                .filter(p -> p.getContext() == IdentifierProperties.IdentifierContext.FORMAL_PARAMETER)
-                .collect(Collectors.toList());
+        return identifiersByContextViews.get(IdentifierContext.FORMAL_PARAMETER);
     }
 
     /**
      * Returns all identifiers in scope with type field
      *
-     * @return Fields
+     * @return Read-only list of fields
      */
     public List<IdentifierProperties> getFields() {
-        return identifiers
-                .stream()
-                .filter(p -> p.getContext() == IdentifierProperties.IdentifierContext.FIELD)
-                .collect(Collectors.toList());
+        return identifiersByContextViews.get(IdentifierContext.FIELD);
     }
 
     /**
@@ -0,0 +1,80 @@
+package edu.virginia.aid.data;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numbering of the words in a corpus. Each distinct word is given an int id the first time it is seen, so the
+ * words of each method can be kept as arrays of ids rather than maps keyed by String. The dictionary is shared
+ * by all of the methods in a corpus and is not thread-safe.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class TermDictionary {
+
+    /**
+     * Map of words to their ids
+     */
+    private final Map<String, Integer> ids;
+
+    /**
+     * The word for each id
+     */
+    private final List<String> terms;
+
+    /**
+     * Creates an empty dictionary
+     */
+    public TermDictionary() {
+        this.ids = new HashMap<>();
+        this.terms = new ArrayList<>();
+    }
+
+    /**
+     * Gets the id of a word, numbering it if it has not been seen before
+     *
+     * @param term The word to look up
+     * @return The id of the word
+     */
+    public int getId(String term) {
+        Integer id = ids.get(term);
+        if (id == null) {
+            id = terms.size();
+            ids.put(term, id);
+            terms.add(term);
+        }
+        return id;
+    }
+
+    /**
+     * Gets the id of a word without numbering it
+     *
+     * @param term The word to look up
+     * @return The id of the word, or -1 if it is not in the dictionary
+     */
+    public int findId(String term) {
+        Integer id = ids.get(term);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Gets the word with the given id
+     *
+     * @param id The id of the word
+     * @return The word
+     */
+    public String getTerm(int id) {
+        return terms.get(id);
+    }
+
+    /**
+     * Gets the number of distinct words in the dictionary
+     *
+     * @return The number of words numbered so far
+     */
+    public int size() {
+        return terms.size();
+    }
+}
@@ -0,0 +1,113 @@
+package edu.virginia.aid.data;
+
+import java.util.Arrays;
+
+/**
+ * Immutable map from the term ids of a {@link TermDictionary} to double values, such as the frequency or
+ * TF/IDF value of each word in a method. Terms are kept in a sorted int array with their values in a parallel
+ * double array, so a vector takes twelve bytes per term and a lookup is a binary search.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class TermVector {
+
+    /**
+     * The vector with no terms
+     */
+    public static final TermVector EMPTY = new TermVector(new int[0], new double[0]);
+
+    /**
+     * The term ids, in increasing order with no repeats
+     */
+    private final int[] terms;
+
+    /**
+     * The value of each term, at the same index as the term
+     */
+    private final double[] values;
+
+    /**
+     * Creates a vector from arrays that are already sorted by term. The arrays are not copied.
+     *
+     * @param terms The term ids, in increasing order with no repeats
+     * @param values The value of each term, at the same index as the term
+     */
+    public TermVector(int[] terms, double[] values) {
+        this.terms = terms;
+        this.values = values;
+    }
+
+    /**
+     * Creates a vector of the distinct terms among a list of ids, each with the same value
+     *
+     * @param ids Array holding the term ids, in any order and possibly repeated. It is sorted in place.
+     * @param length The number of ids in the array to use
+     * @param value The value to give each term
+     * @return The vector of the distinct terms
+     */
+    public static TermVector ofDistinctTerms(int[] ids, int length, double value) {
+        Arrays.sort(ids, 0, length);
+
+        int distinct = 0;
+        for (int i = 0; i < length; i++) {
+            if (distinct == 0 || ids[i] != ids[distinct - 1]) {
+                ids[distinct++] = ids[i];
+            }
+        }
+
+        double[] values = new double[distinct];
+        Arrays.fill(values, value);
+        return new TermVector(Arrays.copyOf(ids, distinct), values);
+    }
+
+    /**
+     * Gets the number of terms in the vector
+     *
+     * @return The number of terms
+     */
+    public int size() {
+        return terms.length;
+    }
+
+    /**
+     * Gets the term at an index of the vector
+     *
+     * @param index The index, between 0 and size() - 1
+     * @return The id of the term at the index
+     */
+    public int getTerm(int index) {
+        return terms[index];
+    }
+
+    /**
+     * Gets the value at an index of the vector
+     *
+     * @param index The index, between 0 and size() - 1
+     * @return The value of the term at the index
+     */
+    public double getValue(int index) {
+        return values[index];
+    }
+
+    /**
+     * Checks whether the vector has a value for a term
+     *
+     * @param term The id of the term
+     * @return Whether the term is in the vector
+     */
+    public boolean contains(int term) {
+        return Arrays.binarySearch(terms, term) >= 0;
+    }
+
+    /**
+     * Gets the value of a term
+     *
+     * @param term The id of the term
+     * @param defaultValue The value to return if the term is not in the vector
+     * @return The value of the term, or defaultValue if it is not in the vector
+     */
+    public double get(int term, double defaultValue) {
+        int index = Arrays.binarySearch(terms, term);
+        return index >= 0 ? values[index] : defaultValue;
+    }
+}
@@ -3,9 +3,12 @@ package edu.virginia.aid.detectors;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 
 import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.util.MethodAnalysisContext;
 
 /**
- * Interface for a single feature detector designed to run on a method
+ * Interface for a single feature detector designed to run on a method. Methods may be processed on several
+ * threads at once, so implementations must only modify the features object they are given and must not keep
+ * mutable state that is shared between methods.
  *
  * @author Matt Pearson-Beck & Jeff Principe
  */
@@ -19,6 +22,18 @@ public interface FeatureDetector {
      */
 	public void process(MethodDeclaration method, MethodFeatures features);
 
+    /**
+     * Process the method with analysis results shared with the other detectors run on it, modifying the
+     * passed features object accordingly. Detectors that need the control flow graph or other results held by
+     * the context should override this so that those results are only computed once per method.
+     *
+     * @param context The shared analysis context for the method to process
+     * @param features The parsed features object to update when processing
+     */
+    public default void process(MethodAnalysisContext context, MethodFeatures features) {
+        process(context.getMethod(), features);
+    }
+
 	// TODO: Rename this class to FeatureProcessor
 	// TODO: Rename the containing package to edu.virginia.aid.processors
 
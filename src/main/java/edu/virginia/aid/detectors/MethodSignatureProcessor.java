@@ -22,7 +22,7 @@ public class MethodSignatureProcessor implements FeatureDetector {
 
         // Check whether the method returns a boolean
         features.addBooleanFeature(MethodFeatures.RETURNS_BOOLEAN,
-                features.getReturnType() != null && features.getReturnType().toString().equals("boolean"));
+                "boolean".equals(features.getReturnType()));
 
         // Check whether the method is a constructor
         features.addBooleanFeature(MethodFeatures.IS_CONSTRUCTOR,
@@ -37,7 +37,9 @@ public class ParameterCopyDetector implements FeatureDetector {
     }
 
     /**
-     * Checks if there is a distinct method whose properties should be copied and, if so, copies them over
+     * Checks if there is a distinct method whose properties should be copied and, if so, copies them over.
+     * The copied method must have finished processing before this detector runs, so aliases of a method
+     * cannot be processed concurrently with it.
      *
      * @param method The method to process
      * @param features The parsed features object to update when processing
@@ -28,7 +28,8 @@ public class PrimaryActionDetector implements FeatureDetector {
 
     /**
      * Examines identifier use and control flow in the method to determine the
-     * primary action of the method, summed up in a single verb
+     * primary action of the method, summed up in a single verb. The classifier may be shared between
+     * methods processed on different threads, so classification is serialized on it.
      *
      * @param method The method to process
      * @param features The parsed features object to update when processing
@@ -36,8 +37,11 @@ public class PrimaryActionDetector implements FeatureDetector {
     @Override
     public void process(MethodDeclaration method, MethodFeatures features) {
         try {
-            int labelIndex = (int) classifier.classifyInstance(features.buildWekaInstance(classAttribute));
-            String label = classAttribute.value(labelIndex);
+            String label;
+            synchronized (classifier) {
+                int labelIndex = (int) classifier.classifyInstance(features.buildWekaInstance(classAttribute));
+                label = classAttribute.value(labelIndex);
+            }
             features.setPrimaryAction(label.equals("methodName") ? features.getProcessedMethodName() : label);
         } catch (Exception e) {
             throw new RuntimeException(e);
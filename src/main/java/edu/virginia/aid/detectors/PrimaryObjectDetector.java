@@ -3,22 +3,20 @@ package edu.virginia.aid.detectors;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
 import java.util.Map;
-import java.util.Queue;
 import java.util.Set;
 
 import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.Statement;
 
 import edu.virginia.aid.data.IdentifierName;
 import edu.virginia.aid.data.IdentifierProperties;
 import edu.virginia.aid.data.MethodFeatures;
 import edu.virginia.aid.symex.IdentifierValue;
-import edu.virginia.aid.symex.InitialValue;
+import edu.virginia.aid.symex.IdentifierValueFactory;
 import edu.virginia.aid.symex.Path;
 import edu.virginia.aid.symex.PathElement;
-import edu.virginia.aid.util.ControlFlowGraph;
+import edu.virginia.aid.util.IndexedControlFlowGraph;
+import edu.virginia.aid.util.MethodAnalysisContext;
 import edu.virginia.aid.visitors.AssignmentVisitor;
 import edu.virginia.aid.visitors.EvaluationVisitor;
 import edu.virginia.aid.visitors.VariableUsageVisitor;
@@ -46,14 +44,26 @@ public class PrimaryObjectDetector implements FeatureDetector {
      */
     @Override
     public void process(MethodDeclaration method, MethodFeatures features) {
+        process(new MethodAnalysisContext(method, features), features);
+    }
+
+    /**
+     * Determines the primary object of the method using the control flow graph and paths held by the
+     * shared analysis context.
+     *
+     * @param context The shared analysis context for the method to process
+     * @param features The parsed features object to update and refer to when processing
+     */
+    @Override
+    public void process(MethodAnalysisContext context, MethodFeatures features) {
     	// Calculate using statement frequency first, if that fails then fall back to
     	// path frequency instead.
-    	String primaryObjectByPath = processByUniquePaths(method, features);
+    	String primaryObjectByPath = processByUniquePaths(context, features);
 
     	if (primaryObjectByPath != null) {
     		features.setPrimaryObject(primaryObjectByPath);
     	} else {
-    		String primaryObjectByStatement = processByUniqueStatements(method, features);
+    		String primaryObjectByStatement = processByUniqueStatements(context, features);
     		features.setPrimaryObject(primaryObjectByStatement != null ? primaryObjectByStatement : "");
     	}
     }
@@ -63,24 +73,25 @@ public class PrimaryObjectDetector implements FeatureDetector {
 	 * leading to a successful exit. Each statement is considered zero or one times.
 	 * Returns the primary object detected.
 	 */
-    public String processByUniqueStatements(MethodDeclaration method, MethodFeatures features) {
-    	// Creating a CFG for this method also populates it.
-    	ControlFlowGraph cfg = new ControlFlowGraph(method);
+    public String processByUniqueStatements(MethodAnalysisContext context, MethodFeatures features) {
+    	IndexedControlFlowGraph cfg = context.getControlFlowGraph();
     	VariableUsageVisitor visitor = new VariableUsageVisitor(features, false /* writing */);
-    	Set<Statement> statementsSeen = new HashSet<>();
-    	Queue<Statement> statementsToProcess = new LinkedList<>();
+    	boolean[] statementsSeen = new boolean[cfg.size()];
+    	int[] statementsToProcess = new int[cfg.size()];
+    	int queueHead = 0;
+    	int queueTail = 0;
     	Map<IdentifierProperties, Integer> statementCounts = new HashMap<>();
 
-    	Statement last = cfg.getEnd();
-        if (last != null) {
-            statementsToProcess.add(last);
-        	statementsSeen.add(last);
+    	int last = cfg.getEnd();
+        if (last >= 0) {
+            statementsToProcess[queueTail++] = last;
+        	statementsSeen[last] = true;
         }
 
-    	while (!statementsToProcess.isEmpty()) {
-    		Statement current = statementsToProcess.poll();
+    	while (queueHead < queueTail) {
+    		int current = statementsToProcess[queueHead++];
     		visitor.clearFields();
-    		current.accept(visitor);
+    		cfg.getStatement(current).accept(visitor);
 
     		// Change to identifierProperties and put into a set, to ensure we only count
     		// each use once even if it's used multiple times in a statement.
@@ -100,13 +111,12 @@ public class PrimaryObjectDetector implements FeatureDetector {
     			}
     		}
     		
-    		// Add all predecessors to queue for processing.
-    		Set<Statement> currentPredecessors = cfg.getPredecessors().get(current);
-    		if (currentPredecessors == null || currentPredecessors.isEmpty()) continue;
-    		for (Statement s : currentPredecessors) {
-    			if (!statementsSeen.contains(s)) {
-    				statementsToProcess.add(s);
-    				statementsSeen.add(s);
+    		// Add all predecessors to queue for processing. Each statement is queued at most once.
+    		for (int i = 0; i < cfg.getPredecessorCount(current); i++) {
+    			int predecessor = cfg.getPredecessor(current, i);
+    			if (!statementsSeen[predecessor]) {
+    				statementsToProcess[queueTail++] = predecessor;
+    				statementsSeen[predecessor] = true;
     			}
     		}
     	}
@@ -121,21 +131,20 @@ public class PrimaryObjectDetector implements FeatureDetector {
      * can be considered on multiple paths.
      * Returns the primary object detected.
      */
-    public String processByUniquePaths(MethodDeclaration method, MethodFeatures features) {
-    	// Creating a CFG for this method also populates it.
-    	ControlFlowGraph cfg = new ControlFlowGraph(method);
+    public String processByUniquePaths(MethodAnalysisContext context, MethodFeatures features) {
+    	IndexedControlFlowGraph cfg = context.getControlFlowGraph();
 
     	// All the paths in this method, sorted from last statements (exits) to beginning.
     	Map<IdentifierProperties, Integer> statementCounts = new HashMap<>();
-    	Statement last = cfg.getEnd();
+    	int last = cfg.getEnd();
     	// If we have no "last" then we can't perform primary object analysis in this way.
-        if (last != null) {
-    		Collection<Path> paths = Path.getPathsToStatement(cfg, last);
+        if (last >= 0) {
+    		Collection<Path> paths = context.getPathsToStatement(cfg.getStatement(last));
 
     		for (Path p : paths) {    			
     	        Map<IdentifierProperties, IdentifierValue> memory = new HashMap<>();
     	        for (IdentifierProperties variable : features.getScope().getIdentifiers()) {
-    	            memory.put(variable, new InitialValue(variable));
+    	            memory.put(variable, IdentifierValueFactory.initialValue(variable));
     	        }
     			
     	        for (PathElement element : p.getPathElements()) {
@@ -150,10 +159,7 @@ public class PrimaryObjectDetector implements FeatureDetector {
     	                			evaluationVisitor.getResult());
     	                }
 
-    	    			VariableUsageVisitor visitor = new VariableUsageVisitor(features, false /* writing */);
-        				visitor.clearFields();
-        				element.getStatement().accept(visitor);
-        				for (IdentifierName iN : visitor.getIdentifierUses()) {
+        				for (IdentifierName iN : context.getIdentifierUses(element.getStatement())) {
         					IdentifierProperties iP = iN.getResolvedIdentifier(features);
         					
         					// IdentifierValue iV = memory.get(iP);
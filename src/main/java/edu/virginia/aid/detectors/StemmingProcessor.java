@@ -9,6 +9,7 @@ import edu.virginia.aid.data.CommentInfo;
 import edu.virginia.aid.data.IdentifierProperties;
 import edu.virginia.aid.data.MethodFeatures;
 import edu.virginia.aid.util.StringHelper;
+import edu.virginia.aid.util.TokenCache;
 
 /**
  * Feature processor for handling word stemming within comments.
@@ -17,7 +18,16 @@ import edu.virginia.aid.util.StringHelper;
  */
 public class StemmingProcessor implements FeatureDetector {
 
-	static final SnowballStemmer stemmer = new org.tartarus.snowball.ext.englishStemmer();
+	/**
+	 * Snowball stemmers keep the word being stemmed as internal state, so each thread gets its own
+	 */
+	static final ThreadLocal<SnowballStemmer> stemmer =
+			ThreadLocal.withInitial(org.tartarus.snowball.ext.englishStemmer::new);
+	/**
+	 * Identifies stemming in the token cache
+	 */
+	private static final Object STEM_STEP = new Object();
+
 	static final String[] DEFAULT_SUFFIXES = { "ion", "ions", "ive", "ed", "ing" };
 
 	/**
@@ -43,17 +53,17 @@ public class StemmingProcessor implements FeatureDetector {
 		}
 
         // Process Method Name
-        features.setProcessedMethodName(stem(StringHelper.splitCamelCase(features.getProcessedMethodName())));
+        features.setProcessedMethodName(stemName(StringHelper.splitCamelCase(features.getProcessedMethodName())));
 
 		// Finally, handle identifiers (parameters, local variables, fields, methods).
 		for (IdentifierProperties parameter : features.getScope().getParameters()) {
-			parameter.setProcessedName(this.stem(parameter.getProcessedName()));
+			parameter.setProcessedName(this.stemName(parameter.getProcessedName()));
 		}
 		for (IdentifierProperties localVariable : features.getScope().getLocalVariables()) {
-			localVariable.setProcessedName(this.stem(localVariable.getProcessedName()));
+			localVariable.setProcessedName(this.stemName(localVariable.getProcessedName()));
 		}
 		for (IdentifierProperties field : features.getScope().getFields()) {
-			field.setProcessedName(this.stem(field.getProcessedName()));
+			field.setProcessedName(this.stemName(field.getProcessedName()));
 		}
 	}
 
@@ -64,9 +74,21 @@ public class StemmingProcessor implements FeatureDetector {
 	 * @return The stemmed word
 	 */
 	public String stem(String s) {
-		stemmer.setCurrent(s);
-		stemmer.stem();
-		return stemmer.getCurrent();
+		SnowballStemmer threadStemmer = stemmer.get();
+		threadStemmer.setCurrent(s);
+		threadStemmer.stem();
+		return threadStemmer.getCurrent();
+	}
+
+	/**
+	 * Stems an identifier or method name. Names repeat across methods, so their stems are kept in the shared
+	 * token cache, while comment text is stemmed directly since it rarely repeats.
+	 *
+	 * @param name The name to be stemmed
+	 * @return The stemmed name
+	 */
+	String stemName(String name) {
+		return TokenCache.SHARED.get(STEM_STEP, name, this::stem);
 	}
 
 }
@@ -8,7 +8,9 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
 import edu.virginia.aid.data.CommentInfo;
 import edu.virginia.aid.data.IdentifierProperties;
 import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.util.Stoplist;
 import edu.virginia.aid.util.StringHelper;
+import edu.virginia.aid.util.TokenCache;
 
 /**
  * Feature processor for removing words based on a stopist.
@@ -17,7 +19,7 @@ import edu.virginia.aid.util.StringHelper;
  */
 public class StoplistProcessor implements FeatureDetector {
 
-	static final String[] DEFAULT_STOPLIST = { "a", "able", "about", "across", "after", "all",
+	public static final String[] DEFAULT_STOPLIST = { "a", "able", "about", "across", "after", "all",
 			"almost", "also", "am", "among", "an", "and", "any", "are", "as", "at", "be",
 			"because", "been", "but", "by", "can", "cannot", "could", "dear", "did", "do", "does",
 			"either", "else", "ever", "every", "for", "from", "get", "got", "had", "has", "have",
@@ -30,6 +32,33 @@ public class StoplistProcessor implements FeatureDetector {
 			"where", "which", "while", "who", "whom", "why", "will", "with", "would", "yet", "you",
 			"your" };
 
+	/**
+	 * The default stoplist, shared by every processor that is not given its own
+	 */
+	public static final Stoplist DEFAULT = new Stoplist(Arrays.asList(DEFAULT_STOPLIST));
+
+	/**
+	 * The stop words to remove
+	 */
+	private final Stoplist stoplist;
+
+	/**
+	 * Creates a processor that removes the words in the default stoplist
+	 */
+	public StoplistProcessor() {
+		this(DEFAULT);
+	}
+
+	/**
+	 * Creates a processor that removes the words in the given stoplist
+	 *
+	 * @param stoplist
+	 *            The stop words to remove
+	 */
+	public StoplistProcessor(Stoplist stoplist) {
+		this.stoplist = stoplist;
+	}
+
 	/**
 	 * Processes the comments, removing words in the stoplist.
 	 *
@@ -57,31 +86,63 @@ public class StoplistProcessor implements FeatureDetector {
 
 		// Finally, handle identifiers (parameters, local variables, fields, methods).
 		for (IdentifierProperties parameter : features.getScope().getParameters()) {
-			parameter.setProcessedName(this.checkStoplist(parameter.getProcessedName()));
+			parameter.setProcessedName(this.checkStoplistName(parameter.getProcessedName()));
 		}
 		for (IdentifierProperties localVariable : features.getScope().getLocalVariables()) {
-			localVariable.setProcessedName(this.checkStoplist(localVariable.getProcessedName()));
+			localVariable.setProcessedName(this.checkStoplistName(localVariable.getProcessedName()));
 		}
 		for (IdentifierProperties field : features.getScope().getFields()) {
-			field.setProcessedName(this.checkStoplist(field.getProcessedName()));
+			field.setProcessedName(this.checkStoplistName(field.getProcessedName()));
 		}
 	}
 
 	/**
-	 * Runs a given string through the default stoplist, removing any words that match.
+	 * Runs a given string through the stoplist, removing any words that match. Characters other than letters
+	 * and spaces are dropped, letters are lower cased, and the remaining words are joined by single spaces,
+	 * all in one pass over the string.
 	 * 
 	 * @param s
 	 *            The given string, to be run through the stoplist.
 	 * @return The original string with any 'stoplist words' removed.
 	 */
-	private String checkStoplist(String s) {
-		String[] split = s.replaceAll("[^a-zA-Z ]", "").toLowerCase().split("\\s+");
-		String newS = "";
-		for (String word : split) {
-			if (!Arrays.asList(DEFAULT_STOPLIST).contains(word)) {
-				newS += word + " ";
+	String checkStoplist(String s) {
+		int length = s.length();
+		char[] result = new char[length + 1];
+		int resultLength = 0;
+
+		// Each word is written after the words kept so far, then either kept or overwritten by the next word
+		int wordStart = 0;
+		for (int i = 0; i <= length; i++) {
+			char c = i < length ? s.charAt(i) : ' ';
+			if (c >= 'a' && c <= 'z') {
+				result[resultLength++] = c;
+			} else if (c >= 'A' && c <= 'Z') {
+				result[resultLength++] = (char) (c + ('a' - 'A'));
+			} else if (c == ' ') {
+				int wordLength = resultLength - wordStart;
+				if (wordLength == 0 || stoplist.contains(result, wordStart, wordLength)) {
+					resultLength = wordStart;
+				} else {
+					result[resultLength++] = ' ';
+					wordStart = resultLength;
+				}
 			}
 		}
-		return newS.trim();
+
+		// Drop the space after the last word kept
+		return new String(result, 0, Math.max(0, resultLength - 1));
+	}
+
+	/**
+	 * Runs an identifier name through the stoplist. Names repeat across methods, so the results are kept in the
+	 * shared token cache under this processor's stoplist, while comment text is checked directly since it rarely
+	 * repeats.
+	 *
+	 * @param name
+	 *            The identifier name, to be run through the stoplist.
+	 * @return The name with any 'stoplist words' removed.
+	 */
+	String checkStoplistName(String name) {
+		return TokenCache.SHARED.get(stoplist, name, this::checkStoplist);
 	}
 }
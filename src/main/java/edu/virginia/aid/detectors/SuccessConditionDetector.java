@@ -1,19 +1,15 @@
 package edu.virginia.aid.detectors;
 
 import edu.virginia.aid.data.MethodFeatures;
-import edu.virginia.aid.symex.Path;
+import edu.virginia.aid.symex.BooleanAndList;
+import edu.virginia.aid.symex.SuccessConditionEngine;
 import edu.virginia.aid.symex.SumOfProducts;
 import edu.virginia.aid.symex.SymbolicExecution;
-import edu.virginia.aid.util.ControlFlowGraph;
+import edu.virginia.aid.util.AnalysisBudget;
+import edu.virginia.aid.util.MethodAnalysisContext;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.ThrowStatement;
 
-import java.util.ArrayList;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Set;
-
 /**
  * Feature detector for finding the predicate that must be satisfied for the method to execute without
  * throwing an exception.
@@ -23,33 +19,68 @@ import java.util.Set;
 public class SuccessConditionDetector implements FeatureDetector {
 
     /**
-     * Generates all exceptional paths in the method and determines the predicate that must be true to
-     * avoid all of these paths during execution.
+     * How the exceptional path conditions are negated
+     */
+    private final SuccessConditionEngine engine;
+
+    public SuccessConditionDetector() {
+        this(SuccessConditionEngine.PRODUCTS);
+    }
+
+    public SuccessConditionDetector(SuccessConditionEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Finds the method's success conditions using an analysis context of its own
      *
      * @param method The method to process
      * @param features The parsed features object to update when processing
      */
     @Override
     public void process(MethodDeclaration method, MethodFeatures features) {
-        ControlFlowGraph cfg = new ControlFlowGraph(method);
-        Set<Statement> statements = cfg.getSuccessors().keySet();
-
-        // Get throws statements
-        Set<ThrowStatement> throwStatements = new HashSet<>();
-        for (Statement statement : statements) {
-            if (statement instanceof ThrowStatement) {
-                throwStatements.add((ThrowStatement) statement);
+        process(new MethodAnalysisContext(method, features), features);
+    }
+
+    /**
+     * Generates all exceptional paths in the method and determines the predicate that must be true to
+     * avoid all of these paths during execution.
+     *
+     * @param context The shared analysis context for the method to process
+     * @param features The parsed features object to update when processing
+     */
+    @Override
+    public void process(MethodAnalysisContext context, MethodFeatures features) {
+        // Gather the conditions of every path that ends in an exception
+        SumOfProducts exceptionalConditions = new SumOfProducts();
+        for (ThrowStatement throwStatement : context.getThrowStatements()) {
+            SumOfProducts throwConditions = context.getPathConditions(throwStatement);
+            if (throwConditions == null) {
+                exceptionalConditions = null;
+                break;
+            }
+            for (BooleanAndList product : throwConditions.getProducts()) {
+                exceptionalConditions.addProduct(product);
             }
         }
 
-        List<Path> exceptionalPaths = new ArrayList<>();
-        for (ThrowStatement throwStatement : throwStatements) {
-            exceptionalPaths.addAll(Path.getPathsToStatement(cfg, throwStatement));
+        AnalysisBudget budget = context.getBudget();
+        SumOfProducts successConditions;
+        switch (engine) {
+            case BDD:
+                successConditions = SymbolicExecution.inverseSymExBdd(exceptionalConditions, budget);
+                break;
+            case OBJECTS:
+                successConditions = SymbolicExecution.inverseSymExObjects(exceptionalConditions, budget);
+                break;
+            default:
+                successConditions = SymbolicExecution.inverseSymEx(exceptionalConditions, budget);
+                break;
         }
 
-        SumOfProducts successConditions = SymbolicExecution.inverseSymEx(features, exceptionalPaths);
-
-        // Set conditions for success in the method
+        // Set conditions for success in the method, noting if they were given up on to stay within the budget
         features.setConditionsForSuccess(successConditions);
+        features.setConditionsForSuccessIncomplete(successConditions == null &&
+                (budget.isExceeded(AnalysisBudget.Limit.PRODUCTS) || budget.isExceeded(AnalysisBudget.Limit.TIME)));
     }
 }
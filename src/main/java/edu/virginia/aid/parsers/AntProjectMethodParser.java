@@ -2,7 +2,6 @@ package edu.virginia.aid.parsers;
 
 import java.io.File;
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -110,16 +109,6 @@ public class AntProjectMethodParser extends DirectoryMethodParser {
     protected List<MethodFeatures> parseMethods(boolean trainingMode) {
         Set<File> sourceFiles = getSourceFiles();
 
-        List<MethodFeatures> methods = new ArrayList<>();
-
-        System.out.print("Processed 0 methods");
-        for (File sourceFile : sourceFiles) {
-            methods.addAll(getMethodsFromFile(sourceFile.getPath(), trainingMode));
-            System.out.print("\rProcessed " + methods.size() + " methods");
-        }
-
-        System.out.println();
-
-        return methods;
+        return getMethodsFromFiles(sourceFiles, trainingMode);
     }
 }
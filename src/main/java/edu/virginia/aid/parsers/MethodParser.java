@@ -1,17 +1,24 @@
 package edu.virginia.aid.parsers;
 
 import java.io.BufferedReader;
+import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
 import java.util.Queue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.stream.Collectors;
 
 import org.eclipse.jdt.core.dom.AST;
@@ -19,7 +26,6 @@ import org.eclipse.jdt.core.dom.ASTParser;
 import org.eclipse.jdt.core.dom.Comment;
 import org.eclipse.jdt.core.dom.CompilationUnit;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
-import org.eclipse.jdt.core.dom.TagElement;
 
 import weka.classifiers.Classifier;
 import weka.classifiers.bayes.NaiveBayes;
@@ -30,6 +36,7 @@ import edu.virginia.aid.data.CommentInfo;
 import edu.virginia.aid.data.MethodFeatures;
 import edu.virginia.aid.data.MethodSignature;
 import edu.virginia.aid.detectors.CommentDetector;
+import edu.virginia.aid.detectors.FeatureDetector;
 import edu.virginia.aid.detectors.IdentifierDetector;
 import edu.virginia.aid.detectors.MethodSignatureProcessor;
 import edu.virginia.aid.detectors.ParameterCopyDetector;
@@ -38,8 +45,13 @@ import edu.virginia.aid.detectors.PrimaryObjectDetector;
 import edu.virginia.aid.detectors.StemmingProcessor;
 import edu.virginia.aid.detectors.StoplistProcessor;
 import edu.virginia.aid.detectors.SuccessConditionDetector;
+import edu.virginia.aid.symex.SuccessConditionEngine;
+import edu.virginia.aid.util.AnalysisBudget;
+import edu.virginia.aid.util.AnalysisCache;
 import edu.virginia.aid.util.Driver;
 import edu.virginia.aid.util.MethodProcessor;
+import edu.virginia.aid.util.Stoplist;
+import edu.virginia.aid.util.TokenCache;
 import edu.virginia.aid.visitors.ClassVisitor;
 
 /**
@@ -55,16 +67,86 @@ public abstract class MethodParser {
     private Attribute primaryActionClassAttribute;
     private boolean documentedOnly;
 
+    /**
+     * The number of worker threads used to analyze source files. A value of 1 analyzes files sequentially.
+     */
+    private int threads = 1;
+
+    /**
+     * Cache of previously analyzed files, or null if results should not be cached
+     */
+    private AnalysisCache analysisCache;
+
+    /**
+     * The limits on analyzing each method
+     */
+    private AnalysisBudget analysisBudget = new AnalysisBudget();
+
+    /**
+     * How each method's success conditions are found from its exceptional path conditions
+     */
+    private SuccessConditionEngine successConditionEngine = SuccessConditionEngine.PRODUCTS;
+
+    /**
+     * The stop words removed from comments and identifiers
+     */
+    private Stoplist stoplist = StoplistProcessor.DEFAULT;
+
     public MethodParser(boolean documentedOnly) {
         this.documentedOnly = documentedOnly;
     }
 
+    /**
+     * Sets the number of worker threads used to analyze source files
+     *
+     * @param threads The number of worker threads to use (values below 1 are treated as 1)
+     */
+    public void setThreads(int threads) {
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Sets the cache used to skip analysis of files that have not changed since they were last analyzed
+     *
+     * @param analysisCache The cache to use, or null to always analyze every file
+     */
+    public void setAnalysisCache(AnalysisCache analysisCache) {
+        this.analysisCache = analysisCache;
+    }
+
+    /**
+     * Sets the limits on analyzing each method. A method that reaches a limit is only partially analyzed.
+     *
+     * @param analysisBudget The limits each method's analysis has to stay within
+     */
+    public void setAnalysisBudget(AnalysisBudget analysisBudget) {
+        this.analysisBudget = analysisBudget;
+    }
+
+    /**
+     * Sets how each method's success conditions are found from its exceptional path conditions
+     *
+     * @param successConditionEngine The engine used to negate the exceptional path conditions
+     */
+    public void setSuccessConditionEngine(SuccessConditionEngine successConditionEngine) {
+        this.successConditionEngine = successConditionEngine;
+    }
+
+    /**
+     * Sets the stop words removed from comments and identifiers
+     *
+     * @param stoplist The stoplist to use
+     */
+    public void setStoplist(Stoplist stoplist) {
+        this.stoplist = stoplist;
+    }
+
     /**
      * Returns the primaryAction classifier for the current instance, instantiating it if necessary
      *
      * @return classifier
      */
-    public Classifier getPrimaryActionClassifier() {
+    public synchronized Classifier getPrimaryActionClassifier() {
         if (primaryActionClassifier == null) {
             initializeClassifier();
         }
@@ -77,7 +159,7 @@ public abstract class MethodParser {
      *
      * @return The primary action class for the current instance
      */
-    public Attribute getPrimaryActionClassAttribute() {
+    public synchronized Attribute getPrimaryActionClassAttribute() {
         if (primaryActionClassAttribute == null) {
             initializeClassifier();
         }
@@ -108,7 +190,32 @@ public abstract class MethodParser {
     }
 
     public List<MethodFeatures> parseMethods() {
-        return parseMethods(false);
+        List<MethodFeatures> methods = parseMethods(false);
+        reportExceededBudgets(methods);
+
+        return methods;
+    }
+
+    /**
+     * Lists the methods whose analysis reached a limit of the analysis budget, along with the limits reached
+     *
+     * @param methods The analyzed methods
+     */
+    private void reportExceededBudgets(List<MethodFeatures> methods) {
+        List<MethodFeatures> exceededMethods = methods.stream()
+                .filter(method -> !method.getExceededBudgetLimits().isEmpty())
+                .collect(Collectors.toList());
+        if (exceededMethods.isEmpty()) {
+            return;
+        }
+
+        System.out.println(exceededMethods.size() + " methods exceeded the analysis budget (" + analysisBudget + "):");
+        for (MethodFeatures method : exceededMethods) {
+            System.out.println("    " + method.getParentClass().getClassName() + "." + method.getMethodName() + "() reached the "
+                    + method.getExceededBudgetLimits().stream().map(String::valueOf).collect(Collectors.joining(", "))
+                    + (method.getExceededBudgetLimits().size() > 1 ? " limits" : " limit")
+                    + (method.isConditionsForSuccessIncomplete() ? ", success conditions incomplete" : ""));
+        }
     }
 
     /**
@@ -120,15 +227,112 @@ public abstract class MethodParser {
     protected abstract List<MethodFeatures> parseMethods(boolean trainingMode);
 
     /**
-	 * Parses a file into an AST, then gets the methods from the AST.
+     * Parses and processes all methods in the given source files. If more than one thread has been requested,
+     * files are analyzed concurrently, but the returned methods are always in the same order as a sequential
+     * run over the files.
+     *
+     * @param sourceFiles The source files to process, in the order their methods should be returned
+     * @param trainingMode Whether the methods to parse are being used to generate a training set
+     * @return The processed methods from all of the files
+     */
+    protected List<MethodFeatures> getMethodsFromFiles(Collection<File> sourceFiles, boolean trainingMode) {
+        List<MethodFeatures> methods = new ArrayList<>();
+
+        System.out.print("Processed 0 methods");
+        if (threads == 1) {
+            for (File sourceFile : sourceFiles) {
+                methods.addAll(getMethodsFromFile(sourceFile.getPath(), trainingMode));
+                System.out.print("\rProcessed " + methods.size() + " methods");
+            }
+        } else {
+            // Build the shared classifier before any workers need it
+            if (!trainingMode) {
+                getPrimaryActionClassifier();
+            }
+
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<List<MethodFeatures>>> results = new ArrayList<>();
+                for (File sourceFile : sourceFiles) {
+                    results.add(executor.submit(() -> getMethodsFromFile(sourceFile.getPath(), trainingMode)));
+                }
+
+                // Collect results in submission order so output matches the sequential run
+                for (Future<List<MethodFeatures>> result : results) {
+                    methods.addAll(result.get());
+                    System.out.print("\rProcessed " + methods.size() + " methods");
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        System.out.println();
+
+        if (analysisCache != null && !trainingMode) {
+            System.out.printf("Analysis cache hit rate: %.1f%% (%d hits, %d misses)%n",
+                    100 * analysisCache.getHitRate(), analysisCache.getHits(), analysisCache.getMisses());
+        }
+        // Diagnostic only, so it stays out of the ranked output on stdout
+        System.err.printf("Token cache hit rate: %.1f%% (%d hits, %d misses)%n",
+                100 * TokenCache.SHARED.getHitRate(), TokenCache.SHARED.getHits(), TokenCache.SHARED.getMisses());
+
+        return methods;
+    }
+
+    /**
+	 * Parses a file into an AST, then gets the methods from the AST. If an analysis cache is set and the file
+	 * has not changed since it was cached, the methods are restored from the cache instead.
 	 *
      * @param filepath The path to the file containing source code
 	 * @return A list of methods with feature information in this file.
 	 */
 	protected List<MethodFeatures> getMethodsFromFile(String filepath, boolean trainingMode) {
 
-        String fileData = readFile(filepath);
+        byte[] fileContents = readFileContents(filepath);
+        String fileData = new String(fileContents);
+
+        // Training runs a different set of detectors and reads labels from Javadoc tags, which are not cached, so it
+        // always analyzes the file
+        String cacheKey = null;
+        if (analysisCache != null && !trainingMode) {
+            cacheKey = analysisCache.getKey(fileContents);
+            List<MethodFeatures> cachedMethods = analysisCache.load(cacheKey, filepath, fileData);
+            if (cachedMethods != null) {
+                return filterDocumented(cachedMethods);
+            }
+        }
+
+		// Parse the file into an AST
+		CompilationUnit ast = parseCompilationUnit(fileData);
+
+        // Get class information
+        ClassInformation classInformation = getClassInformation(ast, filepath, fileData);
+
+        List<MethodFeatures> methods = handleMethods(classInformation, trainingMode);
 
+        if (cacheKey != null) {
+            analysisCache.store(cacheKey, classInformation, methods);
+        }
+
+		return filterDocumented(methods);
+    }
+
+    /**
+     * Parses the contents of a source file into an AST
+     *
+     * @param fileData The contents of the source file
+     * @return The root of the AST for the file
+     */
+    protected static CompilationUnit parseCompilationUnit(String fileData) {
 		// Create parser handle through Java 1.7
 		ASTParser parser = ASTParser.newParser(AST.JLS4);
 
@@ -136,31 +340,41 @@ public abstract class MethodParser {
 		parser.setSource(fileData.toCharArray());
 		parser.setKind(ASTParser.K_COMPILATION_UNIT);
 
-		// Parse the file into an AST
-		CompilationUnit ast = (CompilationUnit) parser.createAST(null);
+		return (CompilationUnit) parser.createAST(null);
+    }
 
-        // Get class information
-        ClassInformation classInformation = getClassInformation(ast, filepath, fileData);
+    /**
+     * Removes methods that have no javadoc summary if the documentedOnly flag is set
+     *
+     * @param methods The methods to filter
+     * @return The methods that should be analyzed
+     */
+    private List<MethodFeatures> filterDocumented(List<MethodFeatures> methods) {
+        if (!documentedOnly) {
+            return methods;
+        }
 
-		return handleMethods(classInformation, trainingMode);
+        return methods.stream()
+                .filter(method -> !method.getJavadocSummary().equals(""))
+                .collect(Collectors.toList());
     }
 
     /**
-     * Gets the text content of the file at the path provided
+     * Gets the raw content of the file at the path provided
      *
-	 * @return The text of the specified file.
+	 * @return The contents of the specified file.
 	 */
-	protected static String readFile(String filePath) {
-		String fileData = "";
+	protected static byte[] readFileContents(String filePath) {
+		byte[] fileContents = new byte[0];
 
 		// Read all data from specified file.
         try {
-            fileData = new String(Files.readAllBytes(Paths.get(filePath)));
+            fileContents = Files.readAllBytes(Paths.get(filePath));
         } catch (IOException e) {
             System.out.println("Error reading file from path " + filePath);
 		}
 
-		return fileData;
+		return fileContents;
 	}
 
 	/**
@@ -184,6 +398,7 @@ public abstract class MethodParser {
     
     /**
      * Processes the comments from the class information. Must be done here because we need the compilation unit.
+     * Each comment is also assigned to the methods that contain it.
      * 
      * @param cu The compilation unit for this class
      * @param classInformation The modified class information with the comments added.
@@ -197,6 +412,7 @@ public abstract class MethodParser {
                 int endPos = startPos + comment.getLength();
                 classInformation.addComment(new CommentInfo(startPos, endPos, classInformation.getSourceContext()));
             }
+            classInformation.assignMethodComments();
         }
     }
 
@@ -214,7 +430,7 @@ public abstract class MethodParser {
 
             // Get the order of processing of methods
             Map<MethodDeclaration, MethodDeclaration> methodDeclarationMap = new HashMap<>();
-            Map<MethodDeclaration, Integer> indegrees = new HashMap<>();
+            Map<MethodDeclaration, Integer> indegrees = new LinkedHashMap<>();
 
             for (MethodDeclaration m : methods) {
                 indegrees.put(m, 0);
@@ -270,41 +486,62 @@ public abstract class MethodParser {
 
                 // Print the method name.
                 MethodProcessor methodProcessor = new MethodProcessor(m, classInformation, classInformation.getFilepath());
+                methodProcessor.setAnalysisBudget(analysisBudget);
 
-                // Add detector to process comments
-                methodProcessor.addFeatureDetector(new CommentDetector());
-                // Add detector to parse information from the method signature
-                methodProcessor.addFeatureDetector(new MethodSignatureProcessor());
-                // Add detector to process methods
-                methodProcessor.addFeatureDetector(new IdentifierDetector());
-                // Add detector to reduce words to stems.
-                methodProcessor.addFeatureDetector(new StemmingProcessor());
-                // Add detector to remove words in stoplist. Stoplist should be LAST! so words aren't re-added in.
-                methodProcessor.addFeatureDetector(new StoplistProcessor());
-                // Add detector to populate parameters if necessary
-                methodProcessor.addFeatureDetector(new ParameterCopyDetector(getChainRoot(methodDeclarationMap, m), methodFeaturesMap));
-
-                if (!trainingMode) {
-                    // Add detector to parse out the information for primary action and primary object of the method
-                    methodProcessor.addFeatureDetector(new PrimaryActionDetector(getPrimaryActionClassifier(), getPrimaryActionClassAttribute()));
-                    methodProcessor.addFeatureDetector(new PrimaryObjectDetector());
-                    methodProcessor.addFeatureDetector(new SuccessConditionDetector());
+                for (FeatureDetector detector : getFeatureDetectors(getChainRoot(methodDeclarationMap, m), methodFeaturesMap, trainingMode)) {
+                    methodProcessor.addFeatureDetector(detector);
                 }
 
                 // Run all detectors
                 MethodFeatures methodFeatures = methodProcessor.runDetectors();
 
-                // Do not add methods that have no javadoc summary if the documentedOnly flag is set
-                if (!documentedOnly || !methodFeatures.getJavadocSummary().equals("")) {
-                    methodFeaturesList.add(methodFeatures);
-                }
+                methodFeaturesList.add(methodFeatures);
                 methodFeaturesMap.put(m, methodFeatures);
             }
+
+            // The extracted features are all that is needed from here on, so release the AST
+            classInformation.clearMethodDeclarations();
         }
 
         return methodFeaturesList;
     }
 
+    /**
+     * Creates the feature detectors to run on a method, in the order in which they must be run
+     *
+     * @param methodToCopy The method at the root of the method's alias chain
+     * @param methodFeaturesMap Mapping of the method declarations processed so far to their features
+     * @param trainingMode Whether features are being extracted to train the classifier
+     * @return The feature detectors to run on the method
+     */
+    protected List<FeatureDetector> getFeatureDetectors(MethodDeclaration methodToCopy,
+                                                        Map<MethodDeclaration, MethodFeatures> methodFeaturesMap,
+                                                        boolean trainingMode) {
+        List<FeatureDetector> detectors = new ArrayList<>();
+
+        // Add detector to process comments
+        detectors.add(new CommentDetector());
+        // Add detector to parse information from the method signature
+        detectors.add(new MethodSignatureProcessor());
+        // Add detector to process methods
+        detectors.add(new IdentifierDetector());
+        // Add detector to reduce words to stems.
+        detectors.add(new StemmingProcessor());
+        // Add detector to remove words in stoplist. Stoplist should be LAST! so words aren't re-added in.
+        detectors.add(new StoplistProcessor(stoplist));
+        // Add detector to populate parameters if necessary
+        detectors.add(new ParameterCopyDetector(methodToCopy, methodFeaturesMap));
+
+        if (!trainingMode) {
+            // Add detector to parse out the information for primary action and primary object of the method
+            detectors.add(new PrimaryActionDetector(getPrimaryActionClassifier(), getPrimaryActionClassAttribute()));
+            detectors.add(new PrimaryObjectDetector());
+            detectors.add(new SuccessConditionDetector(successConditionEngine));
+        }
+
+        return detectors;
+    }
+
     /**
      * Tests whether the searchNode method can be reached from the start method using the graph provided in
      * the methodDeclarationMap. This is primarily used for alias analysis.
@@ -353,19 +590,14 @@ public abstract class MethodParser {
         List<MethodFeatures> methods = parseMethods(true);
         Map<String, List<MethodFeatures>> labeledMethods = new HashMap<>();
         for (MethodFeatures method : methods) {
-            if (method.getJavadoc() != null) {
-                List<TagElement> tags = ((List<TagElement>) method.getJavadoc().tags()).stream()
-                        .filter(tag -> (tag.getTagName() == null ? "" : tag.getTagName()).equals("@" + labeledProperty))
-                        .collect(Collectors.toList());
-                if (tags.size() > 0 && tags.get(0).fragments().size() > 0) {
-                    String label = tags.get(0).fragments().get(0).toString().trim();
-                    if (labeledMethods.containsKey(label)) {
-                        labeledMethods.get(label).add(method);
-                    } else {
-                        List<MethodFeatures> labelMethods = new ArrayList<>();
-                        labelMethods.add(method);
-                        labeledMethods.put(label, labelMethods);
-                    }
+            String label = method.getJavadocTag("@" + labeledProperty);
+            if (label != null) {
+                if (labeledMethods.containsKey(label)) {
+                    labeledMethods.get(label).add(method);
+                } else {
+                    List<MethodFeatures> labelMethods = new ArrayList<>();
+                    labelMethods.add(method);
+                    labeledMethods.put(label, labelMethods);
                 }
             }
         }
@@ -5,14 +5,16 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 import org.eclipse.jdt.core.dom.InfixExpression;
 
 public class BinOpResult implements IdentifierValue {
 
-    private InfixExpression.Operator operator;
-    private IdentifierValue operand1;
-    private IdentifierValue operand2;
+    private final InfixExpression.Operator operator;
+    private final IdentifierValue operand1;
+    private final IdentifierValue operand2;
+    private final int hash;
 
     private static final Map<InfixExpression.Operator, List<InfixExpression.Operator>> disjoint = new HashMap<>();
     static {
@@ -80,6 +82,9 @@ public class BinOpResult implements IdentifierValue {
         this.operator = operator;
         this.operand1 = operand1;
         this.operand2 = operand2;
+        // Operators do not override hashCode, so hash their tokens to keep hashes the same from run to run
+        this.hash = 31 * (31 * Objects.hashCode(operator == null ? null : operator.toString()) + Objects.hashCode(operand1))
+                + Objects.hashCode(operand2);
     }
 
     public IdentifierValue getOperand1() {
@@ -93,21 +98,21 @@ public class BinOpResult implements IdentifierValue {
     @Override
     public IdentifierValue negate() {
         if (operator.equals(InfixExpression.Operator.CONDITIONAL_AND)) {
-            return new BinOpResult(InfixExpression.Operator.CONDITIONAL_OR, (operand1 == null ? operand1 : operand1.negate()), (operand2 == null ? operand2 : operand2.negate()));
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.CONDITIONAL_OR, (operand1 == null ? operand1 : operand1.negate()), (operand2 == null ? operand2 : operand2.negate()));
         } else if (operator.equals(InfixExpression.Operator.CONDITIONAL_OR)) {
-            return new BinOpResult(InfixExpression.Operator.CONDITIONAL_AND, (operand1 == null ? operand1 : operand1.negate()), (operand2 == null ? operand2 : operand2.negate()));
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.CONDITIONAL_AND, (operand1 == null ? operand1 : operand1.negate()), (operand2 == null ? operand2 : operand2.negate()));
         } else if (operator.equals(InfixExpression.Operator.EQUALS)) {
-            return new BinOpResult(InfixExpression.Operator.NOT_EQUALS, operand1, operand2);
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.NOT_EQUALS, operand1, operand2);
         } else if (operator.equals(InfixExpression.Operator.NOT_EQUALS)) {
-            return new BinOpResult(InfixExpression.Operator.EQUALS, operand1, operand2);
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.EQUALS, operand1, operand2);
         } else if (operator.equals(InfixExpression.Operator.GREATER)) {
-            return new BinOpResult(InfixExpression.Operator.LESS_EQUALS, operand1, operand2);
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.LESS_EQUALS, operand1, operand2);
         } else if (operator.equals(InfixExpression.Operator.GREATER_EQUALS)) {
-            return new BinOpResult(InfixExpression.Operator.LESS, operand1, operand2);
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.LESS, operand1, operand2);
         } else if (operator.equals(InfixExpression.Operator.LESS_EQUALS)) {
-            return new BinOpResult(InfixExpression.Operator.GREATER, operand1, operand2);
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.GREATER, operand1, operand2);
         } else if (operator.equals(InfixExpression.Operator.LESS)) {
-            return new BinOpResult(InfixExpression.Operator.GREATER_EQUALS, operand1, operand2);
+            return IdentifierValueFactory.binOpResult(InfixExpression.Operator.GREATER_EQUALS, operand1, operand2);
         } else {
             return this;
         }
@@ -123,44 +128,44 @@ public class BinOpResult implements IdentifierValue {
             double value2 = ((Constant) operand2).getValue();
 
             if (operator.equals(InfixExpression.Operator.PLUS)) {
-                return new Constant(value1 + value2);
+                return IdentifierValueFactory.constant(value1 + value2);
             } else if (operator.equals(InfixExpression.Operator.MINUS)) {
-                return new Constant(value1 - value2);
+                return IdentifierValueFactory.constant(value1 - value2);
             } else if (operator.equals(InfixExpression.Operator.TIMES)) {
-                return new Constant(value1 * value2);
+                return IdentifierValueFactory.constant(value1 * value2);
             } else if (operator.equals(InfixExpression.Operator.DIVIDE)) {
-                return new Constant(value1 / value2);
+                return IdentifierValueFactory.constant(value1 / value2);
             } else if (operator.equals(InfixExpression.Operator.REMAINDER)) {
-                return new Constant(value1 % value2);
+                return IdentifierValueFactory.constant(value1 % value2);
             } else if (operator.equals(InfixExpression.Operator.EQUALS)) {
-                return new BooleanValue(value1 == value2);
+                return IdentifierValueFactory.booleanValue(value1 == value2);
             } else if (operator.equals(InfixExpression.Operator.NOT_EQUALS)) {
-                return new BooleanValue(value1 != value2);
+                return IdentifierValueFactory.booleanValue(value1 != value2);
             } else if (operator.equals(InfixExpression.Operator.GREATER)) {
-                return new BooleanValue(value1 > value2);
+                return IdentifierValueFactory.booleanValue(value1 > value2);
             } else if (operator.equals(InfixExpression.Operator.GREATER_EQUALS)) {
-                return new BooleanValue(value1 >= value2);
+                return IdentifierValueFactory.booleanValue(value1 >= value2);
             } else if (operator.equals(InfixExpression.Operator.LESS)) {
-                return new BooleanValue(value1 < value2);
+                return IdentifierValueFactory.booleanValue(value1 < value2);
             } else if (operator.equals(InfixExpression.Operator.LESS_EQUALS)) {
-                return new BooleanValue(value1 <= value2);
+                return IdentifierValueFactory.booleanValue(value1 <= value2);
             }
         } else if (operand1 instanceof BooleanValue && operand2 instanceof BooleanValue) {
             boolean value1 = ((BooleanValue) operand1).getValue();
             boolean value2 = ((BooleanValue) operand2).getValue();
 
             if (operator.equals(InfixExpression.Operator.CONDITIONAL_AND)) {
-                return new BooleanValue(value1 && value2);
+                return IdentifierValueFactory.booleanValue(value1 && value2);
             } else if (operator.equals(InfixExpression.Operator.CONDITIONAL_OR)) {
-                return new BooleanValue(value1 || value2);
+                return IdentifierValueFactory.booleanValue(value1 || value2);
             } else if (operator.equals(InfixExpression.Operator.EQUALS)) {
-                return new BooleanValue(value1 == value2);
+                return IdentifierValueFactory.booleanValue(value1 == value2);
             } else if (operator.equals(InfixExpression.Operator.NOT_EQUALS)) {
-                return new BooleanValue(value1 != value2);
+                return IdentifierValueFactory.booleanValue(value1 != value2);
             }
         }
 
-        return new BinOpResult(operator, operand2, operand1);
+        return IdentifierValueFactory.binOpResult(operator, operand2, operand1);
     }
 
     @Override
@@ -184,12 +189,12 @@ public class BinOpResult implements IdentifierValue {
             if (operand1.equals(((BinOpResult) iv).operand1) && operand2.equals(((BinOpResult) iv).operand2)) {
                 AbstractMap.SimpleEntry<InfixExpression.Operator, InfixExpression.Operator> key = new AbstractMap.SimpleEntry<>(operator, ((BinOpResult) iv).operator);
                 if (intersect.containsKey(key)) {
-                    return new BinOpResult(intersect.get(key), operand1, operand2);
+                    return IdentifierValueFactory.binOpResult(intersect.get(key), operand1, operand2);
                 }
             } else if (operand2.equals(((BinOpResult) iv).operand1) && operand1.equals(((BinOpResult) iv).operand2) && reverse.containsKey(((BinOpResult) iv).operator)) {
                 AbstractMap.SimpleEntry<InfixExpression.Operator, InfixExpression.Operator> key = new AbstractMap.SimpleEntry<>(operator, reverse.get(((BinOpResult) iv).operator));
                 if (intersect.containsKey(key)) {
-                    return new BinOpResult(intersect.get(key), operand1, operand2);
+                    return IdentifierValueFactory.binOpResult(intersect.get(key), operand1, operand2);
                 }
             }
         }
@@ -204,15 +209,24 @@ public class BinOpResult implements IdentifierValue {
 
     @Override
     public boolean equals(Object o) {
-        if (o instanceof BinOpResult) {
-            return ((BinOpResult) o).operator.equals(this.operator) &&
-                    ((BinOpResult) o).operand1.equals(this.operand1) &&
-                    ((BinOpResult) o).operand2.equals(this.operand2);
+        if (o == this) {
+            return true;
+        } else if (o instanceof BinOpResult) {
+            // Operands can be missing when an expression could not be evaluated
+            return ((BinOpResult) o).hash == this.hash &&
+                    Objects.equals(((BinOpResult) o).operator, this.operator) &&
+                    Objects.equals(((BinOpResult) o).operand1, this.operand1) &&
+                    Objects.equals(((BinOpResult) o).operand2, this.operand2);
         }
 
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
     public String toString() {
         // Process special cases
         if (commonExpressions.containsKey(new AbstractMap.SimpleEntry<>(operator, operand2))) {
@@ -0,0 +1,324 @@
+package edu.virginia.aid.symex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reduced ordered binary decision diagrams over atomic conditions. Each distinct condition becomes a variable,
+ * numbered in the order the conditions are first seen, and a condition whose negation is already a variable
+ * is represented as the complement of that variable.
+ *
+ * A function is referred to by an int whose low bit marks a complemented edge, so negating a function is a
+ * single bit flip and never builds new nodes. Nodes are shared through a unique table and the results of
+ * AND are memoized, so equal functions always have equal references.
+ *
+ * Functions can be turned back into conditions with {@link #toSumOfProducts(int, int)}, which extracts an
+ * irredundant sum of products cover with the Minato-Morreale algorithm.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class BinaryDecisionDiagram {
+
+    public static final int TRUE = 0;
+    public static final int FALSE = 1;
+
+    /**
+     * Variable of the terminal node, ordered after every real variable
+     */
+    private static final int TERMINAL_VARIABLE = Integer.MAX_VALUE;
+
+    // Node storage, indexed by node number. Node 0 is the TRUE terminal.
+    private int[] variables = new int[64];
+    private int[] lows = new int[64];
+    private int[] highs = new int[64];
+    private int nodeCount = 1;
+
+    /**
+     * Open-addressing table of node numbers, hashed on (variable, low, high), where 0 marks an empty slot
+     */
+    private int[] uniqueTable = new int[128];
+
+    private final Map<Long, Integer> andCache = new HashMap<>();
+
+    /**
+     * The references for each condition seen so far, which may be complemented variables
+     */
+    private final Map<IdentifierValue, Integer> conditionReferences = new HashMap<>();
+
+    /**
+     * The condition each variable stands for
+     */
+    private final List<IdentifierValue> variableConditions = new ArrayList<>();
+
+    public BinaryDecisionDiagram() {
+        variables[0] = TERMINAL_VARIABLE;
+    }
+
+    /**
+     * Builds the function of a condition. Lists of terms are combined with AND and OR and anything else is
+     * an atomic condition. The condition should already be simplified, so that equal conditions share a
+     * variable.
+     *
+     * @param condition The condition to build the function of
+     * @return Reference to the function of the condition
+     */
+    public int fromCondition(IdentifierValue condition) {
+        if (condition instanceof BooleanAndList) {
+            int result = TRUE;
+            for (IdentifierValue term : ((BooleanAndList) condition).getTerms()) {
+                result = and(result, fromCondition(term));
+            }
+            return result;
+        } else if (condition instanceof BooleanOrList) {
+            int result = FALSE;
+            for (IdentifierValue term : ((BooleanOrList) condition).getTerms()) {
+                result = or(result, fromCondition(term));
+            }
+            return result;
+        } else if (condition instanceof BooleanValue) {
+            return ((BooleanValue) condition).getValue() ? TRUE : FALSE;
+        }
+
+        Integer reference = conditionReferences.get(condition);
+        if (reference != null) {
+            return reference;
+        }
+
+        int variable = variableConditions.size();
+        variableConditions.add(condition);
+        reference = makeNode(variable, FALSE, TRUE);
+        conditionReferences.put(condition, reference);
+
+        IdentifierValue negation = condition.negate();
+        if (negation != null) {
+            negation = negation.simplify();
+            if (!conditionReferences.containsKey(negation)) {
+                conditionReferences.put(negation, not(reference));
+            }
+        }
+        return reference;
+    }
+
+    public int not(int f) {
+        return f ^ 1;
+    }
+
+    public int and(int f, int g) {
+        if (f == FALSE || g == FALSE || f == not(g)) {
+            return FALSE;
+        } else if (f == TRUE || f == g) {
+            return g;
+        } else if (g == TRUE) {
+            return f;
+        }
+
+        if (f > g) {
+            int swap = f;
+            f = g;
+            g = swap;
+        }
+        long key = ((long) f << 32) | (g & 0xffffffffL);
+        Integer cached = andCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int variable = Math.min(variable(f), variable(g));
+        int result = makeNode(variable,
+                and(low(f, variable), low(g, variable)),
+                and(high(f, variable), high(g, variable)));
+        andCache.put(key, result);
+        return result;
+    }
+
+    public int or(int f, int g) {
+        return not(and(not(f), not(g)));
+    }
+
+    /**
+     * Gets the number of nodes built so far, including the terminal
+     *
+     * @return The number of nodes
+     */
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    /**
+     * Extracts an irredundant sum of products cover of a function, in which no product can be dropped and no
+     * literal can be removed from a product
+     *
+     * @param f The function to cover
+     * @param maxProducts The number of products past which to give up
+     * @return The cover, or null if it has more than maxProducts products
+     */
+    public SumOfProducts toSumOfProducts(int f, int maxProducts) {
+        List<int[]> cover = isop(f, f, new HashMap<>(), maxProducts).cover;
+        if (cover == null) {
+            return null;
+        }
+
+        SumOfProducts sumOfProducts = new SumOfProducts();
+        for (int[] product : cover) {
+            BooleanAndList booleanAndList = new BooleanAndList();
+            for (int literal : product) {
+                IdentifierValue condition = variableConditions.get(literal >>> 1);
+                booleanAndList.addTerm((literal & 1) == 0 ? condition : condition.negate().simplify());
+            }
+            sumOfProducts.addProduct(booleanAndList);
+        }
+        return sumOfProducts;
+    }
+
+    /**
+     * Cover of a function by products of literals, where literal 2v is variable v and 2v + 1 is its negation,
+     * along with the function the cover computes
+     */
+    private static class Cover {
+        final List<int[]> cover;
+        final int function;
+
+        Cover(List<int[]> cover, int function) {
+            this.cover = cover;
+            this.function = function;
+        }
+    }
+
+    /**
+     * Minato-Morreale irredundant sum of products for an incompletely specified function, given by a lower
+     * bound that must be covered and an upper bound that must not be exceeded
+     */
+    private Cover isop(int lower, int upper, Map<Long, Cover> memo, int maxProducts) {
+        if (lower == FALSE) {
+            return new Cover(new ArrayList<>(), FALSE);
+        } else if (upper == TRUE) {
+            List<int[]> cover = new ArrayList<>();
+            cover.add(new int[0]);
+            return new Cover(cover, TRUE);
+        }
+
+        long key = ((long) lower << 32) | (upper & 0xffffffffL);
+        Cover cached = memo.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        int variable = Math.min(variable(lower), variable(upper));
+        int lower0 = low(lower, variable), lower1 = high(lower, variable);
+        int upper0 = low(upper, variable), upper1 = high(upper, variable);
+
+        Cover cover0 = isop(and(lower0, not(upper1)), upper0, memo, maxProducts);
+        if (cover0.cover == null) {
+            return cover0;
+        }
+        Cover cover1 = isop(and(lower1, not(upper0)), upper1, memo, maxProducts);
+        if (cover1.cover == null) {
+            return cover1;
+        }
+        int lowerRest = or(and(lower0, not(cover0.function)), and(lower1, not(cover1.function)));
+        Cover coverRest = isop(lowerRest, and(upper0, upper1), memo, maxProducts);
+        if (coverRest.cover == null) {
+            return coverRest;
+        }
+
+        if (cover0.cover.size() + cover1.cover.size() + coverRest.cover.size() > maxProducts) {
+            return new Cover(null, FALSE);
+        }
+        List<int[]> cover = new ArrayList<>();
+        for (int[] product : cover0.cover) {
+            cover.add(withLiteral(product, 2 * variable + 1));
+        }
+        for (int[] product : cover1.cover) {
+            cover.add(withLiteral(product, 2 * variable));
+        }
+        cover.addAll(coverRest.cover);
+
+        int function = or(makeNode(variable, cover0.function, cover1.function), coverRest.function);
+        Cover result = new Cover(cover, function);
+        memo.put(key, result);
+        return result;
+    }
+
+    private static int[] withLiteral(int[] product, int literal) {
+        int[] extended = new int[product.length + 1];
+        extended[0] = literal;
+        System.arraycopy(product, 0, extended, 1, product.length);
+        return extended;
+    }
+
+    private int variable(int f) {
+        return variables[f >>> 1];
+    }
+
+    /**
+     * Cofactor of a function with the given variable false, where the variable is at or above the function's top
+     */
+    private int low(int f, int variable) {
+        return variable(f) == variable ? lows[f >>> 1] ^ (f & 1) : f;
+    }
+
+    /**
+     * Cofactor of a function with the given variable true, where the variable is at or above the function's top
+     */
+    private int high(int f, int variable) {
+        return variable(f) == variable ? highs[f >>> 1] ^ (f & 1) : f;
+    }
+
+    /**
+     * Gets the node for "if variable then high else low", keeping the high edge uncomplemented so that every
+     * function has exactly one reference
+     */
+    private int makeNode(int variable, int low, int high) {
+        if (low == high) {
+            return low;
+        }
+        if ((high & 1) != 0) {
+            return not(makeNode(variable, not(low), not(high)));
+        }
+
+        int mask = uniqueTable.length - 1;
+        int slot = hash(variable, low, high) & mask;
+        for (int node = uniqueTable[slot]; node != 0; node = uniqueTable[slot]) {
+            if (variables[node] == variable && lows[node] == low && highs[node] == high) {
+                return node << 1;
+            }
+            slot = (slot + 1) & mask;
+        }
+
+        if (nodeCount == variables.length) {
+            variables = Arrays.copyOf(variables, nodeCount * 2);
+            lows = Arrays.copyOf(lows, nodeCount * 2);
+            highs = Arrays.copyOf(highs, nodeCount * 2);
+        }
+        int node = nodeCount++;
+        variables[node] = variable;
+        lows[node] = low;
+        highs[node] = high;
+        uniqueTable[slot] = node;
+        if (2 * nodeCount > uniqueTable.length) {
+            growUniqueTable();
+        }
+        return node << 1;
+    }
+
+    private void growUniqueTable() {
+        uniqueTable = new int[uniqueTable.length * 2];
+        int mask = uniqueTable.length - 1;
+        for (int node = 1; node < nodeCount; node++) {
+            int slot = hash(variables[node], lows[node], highs[node]) & mask;
+            while (uniqueTable[slot] != 0) {
+                slot = (slot + 1) & mask;
+            }
+            uniqueTable[slot] = node;
+        }
+    }
+
+    private static int hash(int variable, int low, int high) {
+        int hash = variable * 0x9e3779b1 + low;
+        hash = hash * 0x9e3779b1 + high;
+        return hash ^ (hash >>> 16);
+    }
+}
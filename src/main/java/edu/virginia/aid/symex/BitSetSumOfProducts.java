@@ -0,0 +1,219 @@
+package edu.virginia.aid.symex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sum of products in which each product is a bitset over the literals of a {@link LiteralTable}. Checking a
+ * product for unsatisfiability, finding duplicate products and checking whether one product is a subset of
+ * another are word-wise bit operations rather than comparisons between lists of IdentifierValues, so a
+ * product of sums can be multiplied out one sum at a time with the products that can never be true and the
+ * repeated products dropped as they appear.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class BitSetSumOfProducts {
+
+    private final LiteralTable literals;
+
+    /**
+     * The bitset of each product, in the same order as {@link ProductOfSums#convertToSumOfProducts()} gives
+     */
+    private final List<long[]> products;
+
+    /**
+     * The literals of each product in the order of the sums they came from, repeats included, so that a product
+     * converts back to the same list of terms as {@link ProductOfSums#convertToSumOfProducts()} gives
+     */
+    private final List<int[]> productTerms;
+
+    /**
+     * Creates a sum with a single empty product, which is always true
+     *
+     * @param literals The numbering of the conditions in the products
+     */
+    public BitSetSumOfProducts(LiteralTable literals) {
+        this(literals, new ArrayList<>(), new ArrayList<>());
+        products.add(new long[0]);
+        productTerms.add(new int[0]);
+    }
+
+    private BitSetSumOfProducts(LiteralTable literals, List<long[]> products, List<int[]> productTerms) {
+        this.literals = literals;
+        this.products = products;
+        this.productTerms = productTerms;
+    }
+
+    public int size() {
+        return products.size();
+    }
+
+    /**
+     * Multiplies the sum by a sum of conditions, leaving out products that are unsatisfiable and keeping only
+     * the last of any repeated products
+     *
+     * @param sum The conditions to AND with each product, one at a time
+     * @param maxProducts The number of products past which to give up
+     * @return The product of this sum and the given sum, or null if it has more than maxProducts products
+     */
+    public BitSetSumOfProducts and(BooleanOrList sum, int maxProducts) {
+        int[] sumLiterals = new int[sum.getTerms().size()];
+        for (int i = 0; i < sumLiterals.length; i++) {
+            sumLiterals[i] = literals.getLiteral(sum.getTerms().get(i));
+        }
+        int words = literals.getWordCount();
+
+        // The terms of the new sum vary slowest, as in ProductOfSums.convertToSumOfProducts
+        List<long[]> result = new ArrayList<>();
+        List<int[]> resultTerms = new ArrayList<>();
+        Map<ProductKey, Integer> positions = new HashMap<>();
+        int live = 0;
+        for (int literal : sumLiterals) {
+            for (int i = 0; i < products.size(); i++) {
+                long[] conjunction = Arrays.copyOf(products.get(i), words);
+                conjunction[literal >>> 6] |= 1L << literal;
+                if (literals.isUnsatisfiable(conjunction)) {
+                    continue;
+                }
+
+                Integer previous = positions.put(new ProductKey(conjunction), result.size());
+                if (previous != null) {
+                    result.set(previous, null);
+                    resultTerms.set(previous, null);
+                } else if (++live > maxProducts) {
+                    return null;
+                }
+                result.add(conjunction);
+
+                int[] terms = Arrays.copyOf(productTerms.get(i), productTerms.get(i).length + 1);
+                terms[terms.length - 1] = literal;
+                resultTerms.add(terms);
+            }
+        }
+
+        result.removeIf(product -> product == null);
+        resultTerms.removeIf(terms -> terms == null);
+        return new BitSetSumOfProducts(literals, result, resultTerms);
+    }
+
+    /**
+     * Converts the products back to lists of IdentifierValues and simplifies them the same way
+     * {@link SumOfProducts#simplifyKeepType()} does: each product is simplified, unsatisfiable products are
+     * dropped and a product is dropped if its terms are a subset of a later product or a product already kept.
+     *
+     * @return The simplified sum of products
+     */
+    public SumOfProducts toSimplifiedSumOfProducts() {
+        List<BooleanAndList> simplifiedProducts = new ArrayList<>(products.size());
+        List<long[]> simplifiedBits = new ArrayList<>(products.size());
+        for (int[] terms : productTerms) {
+            BooleanAndList simplified = toBooleanAndList(terms).simplifyKeepType();
+            if (!simplified.isUnsatisfiable()) {
+                simplifiedProducts.add(simplified);
+                simplifiedBits.add(toBits(simplified));
+            }
+        }
+
+        SumOfProducts sumOfProducts = new SumOfProducts();
+        List<long[]> keptBits = new ArrayList<>();
+        for (int i = 0; i < simplifiedBits.size(); i++) {
+            boolean found = false;
+            for (int j = i + 1; j < simplifiedBits.size() && !found; j++) {
+                found = isSubset(simplifiedBits.get(i), simplifiedBits.get(j));
+            }
+            for (int j = 0; j < keptBits.size() && !found; j++) {
+                found = isSubset(simplifiedBits.get(i), keptBits.get(j));
+            }
+
+            if (!found) {
+                sumOfProducts.addProduct(simplifiedProducts.get(i));
+                keptBits.add(simplifiedBits.get(i));
+            }
+        }
+        return sumOfProducts;
+    }
+
+    private BooleanAndList toBooleanAndList(int[] terms) {
+        BooleanAndList booleanAndList = new BooleanAndList();
+        for (int literal : terms) {
+            booleanAndList.addTerm(literals.getCondition(literal));
+        }
+        return booleanAndList;
+    }
+
+    private long[] toBits(BooleanAndList product) {
+        int[] productLiterals = new int[product.getTerms().size()];
+        for (int i = 0; i < productLiterals.length; i++) {
+            productLiterals[i] = literals.getLiteral(product.getTerms().get(i));
+        }
+
+        long[] bits = new long[literals.getWordCount()];
+        for (int literal : productLiterals) {
+            bits[literal >>> 6] |= 1L << literal;
+        }
+        return bits;
+    }
+
+    /**
+     * Checks whether every literal of one product is in another, treating missing words as empty
+     */
+    private static boolean isSubset(long[] a, long[] b) {
+        for (int i = 0; i < a.length; i++) {
+            if ((a[i] & ~(i < b.length ? b[i] : 0)) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Wrapper giving a product bitset value equality, ignoring trailing empty words
+     */
+    private static final class ProductKey {
+
+        private final long[] bits;
+        private final int length;
+        private final int hash;
+
+        ProductKey(long[] bits) {
+            int length = bits.length;
+            while (length > 0 && bits[length - 1] == 0) {
+                length--;
+            }
+
+            int hash = 1;
+            for (int i = 0; i < length; i++) {
+                hash = 31 * hash + Long.hashCode(bits[i]);
+            }
+
+            this.bits = bits;
+            this.length = length;
+            this.hash = hash;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof ProductKey)) {
+                return false;
+            }
+            ProductKey other = (ProductKey) o;
+            if (other.hash != hash || other.length != length) {
+                return false;
+            }
+            for (int i = 0; i < length; i++) {
+                if (other.bits[i] != bits[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
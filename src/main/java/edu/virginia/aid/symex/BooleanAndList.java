@@ -2,7 +2,9 @@ package edu.virginia.aid.symex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * List of multiple IdentifierValues ANDed together
@@ -112,15 +114,19 @@ public class BooleanAndList implements IdentifierValue {
     }
 
     public boolean isSubsetOf(BooleanAndList bal) {
+        return isSubsetOf(new HashSet<>(bal.terms));
+    }
+
+    /**
+     * Checks whether every term of this list is in a set of terms. Lets the terms of a list that is compared
+     * many times be put in a set once.
+     *
+     * @param terms The terms to look for this list's terms in
+     * @return Whether every term of this list is in the set
+     */
+    public boolean isSubsetOf(Set<IdentifierValue> terms) {
         for (IdentifierValue term : this.terms) {
-            boolean inList = false;
-            for (IdentifierValue term2 : bal.terms) {
-                if (term.equals(term2)) {
-                    inList = true;
-                    break;
-                }
-            }
-            if (!inList) {
+            if (!terms.contains(term)) {
                 return false;
             }
         }
@@ -2,7 +2,9 @@ package edu.virginia.aid.symex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * List of multiple IdentifierValues ORed together
@@ -47,14 +49,9 @@ public class BooleanOrList implements IdentifierValue {
             booleanOrList.getTerms().add(i, simplifiedTerm);
         }
 
-        for (int i = 0; i < booleanOrList.getTerms().size(); i++) {
-            for (int j = i + 1; j < booleanOrList.getTerms().size(); j++) {
-                if (booleanOrList.getTerms().get(i).equals(booleanOrList.getTerms().get(j))) {
-                    booleanOrList.getTerms().remove(j);
-                    j--;
-                }
-            }
-        }
+        // Remove repeated terms, keeping the first of each
+        Set<IdentifierValue> seen = new HashSet<>();
+        booleanOrList.getTerms().removeIf(term -> !seen.add(term));
 
         return booleanOrList;
     }
@@ -7,7 +7,7 @@ package edu.virginia.aid.symex;
  */
 public class BooleanValue implements IdentifierValue {
 
-    private boolean value;
+    private final boolean value;
 
     public BooleanValue(boolean value) {
         this.value = value;
@@ -47,6 +47,11 @@ public class BooleanValue implements IdentifierValue {
         return (o instanceof BooleanValue) && (value == ((BooleanValue) o).value);
     }
 
+    @Override
+    public int hashCode() {
+        return Boolean.hashCode(value);
+    }
+
     public String toString() {
         return (value ? "true" : "false");
     }
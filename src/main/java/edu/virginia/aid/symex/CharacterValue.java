@@ -7,7 +7,7 @@ package edu.virginia.aid.symex;
  */
 public class CharacterValue implements IdentifierValue {
 
-    private char value;
+    private final char value;
 
     public CharacterValue(char value) {
         this.value = value;
@@ -47,6 +47,11 @@ public class CharacterValue implements IdentifierValue {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return Character.hashCode(value);
+    }
+
     @Override
     public String toString() {
         return "" + this.value;
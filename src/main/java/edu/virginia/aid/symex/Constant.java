@@ -7,10 +7,13 @@ package edu.virginia.aid.symex;
  */
 public class Constant implements IdentifierValue {
 
-    private double value;
+    private final double value;
+    private final int hash;
 
     public Constant(double value) {
         this.value = value;
+        // 0.0 and -0.0 are equal, so they need the same hash
+        this.hash = Double.hashCode(value == 0 ? 0.0 : value);
     }
 
     @Override
@@ -44,7 +47,12 @@ public class Constant implements IdentifierValue {
 
     @Override
     public boolean equals(Object o) {
-        return (o instanceof Constant) && (((Constant) o).value == value);
+        return o == this || (o instanceof Constant) && (((Constant) o).value == value);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     public String toString() {
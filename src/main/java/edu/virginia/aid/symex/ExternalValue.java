@@ -7,7 +7,7 @@ package edu.virginia.aid.symex;
  */
 public class ExternalValue implements IdentifierValue {
 
-    private String name;
+    private final String name;
 
     public ExternalValue(String name) {
         this.name = name;
@@ -51,6 +51,11 @@ public class ExternalValue implements IdentifierValue {
         return false;
     }
 
+    @Override
+    public int hashCode() {
+        return name.hashCode();
+    }
+
     @Override
     public boolean isComplete() {
     	return true;
@@ -0,0 +1,110 @@
+package edu.virginia.aid.symex;
+
+import java.lang.ref.WeakReference;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+import org.eclipse.jdt.core.dom.InfixExpression;
+import org.eclipse.jdt.core.dom.PrefixExpression;
+
+import edu.virginia.aid.data.IdentifierProperties;
+
+/**
+ * Hash-consing factory for the immutable IdentifierValues built during symbolic execution. Each value is
+ * looked up in a table of the values created so far and the existing instance is returned if there is one,
+ * so structurally equal terms share a single instance. Every value caches its hash when it is created, and
+ * since the operands of an interned value are interned too, comparing two values usually stops at a
+ * reference comparison instead of walking both expression trees.
+ *
+ * Values are only held weakly, so the table never keeps a value alive once the analysis that built it is
+ * done. Lists of terms (BooleanAndList, BooleanOrList, SumOfProducts and ProductOfSums) can be changed after
+ * they are created and are never interned.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class IdentifierValueFactory {
+
+    /**
+     * Number of independently locked tables, so that threads analyzing different files rarely wait on each other
+     */
+    private static final int STRIPES = 16;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static final Map<IdentifierValue, WeakReference<IdentifierValue>>[] tables = new Map[STRIPES];
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            tables[i] = new WeakHashMap<>();
+        }
+    }
+
+    /**
+     * Gets the shared instance of a value, making the value itself the shared instance if it is the first of
+     * its kind
+     *
+     * @param value The value to intern
+     * @return The shared instance that is equal to the value, or null if the value is null
+     */
+    @SuppressWarnings("unchecked")
+    public static <T extends IdentifierValue> T intern(T value) {
+        if (value == null) {
+            return null;
+        }
+
+        Map<IdentifierValue, WeakReference<IdentifierValue>> table = tables[(value.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (table) {
+            WeakReference<IdentifierValue> existing = table.get(value);
+            IdentifierValue shared = existing != null ? existing.get() : null;
+            if (shared != null && shared.getClass() == value.getClass()) {
+                return (T) shared;
+            }
+
+            table.put(value, new WeakReference<>(value));
+            return value;
+        }
+    }
+
+    public static BinOpResult binOpResult(InfixExpression.Operator operator, IdentifierValue operand1, IdentifierValue operand2) {
+        return intern(new BinOpResult(operator, operand1, operand2));
+    }
+
+    public static UnOpResult unOpResult(PrefixExpression.Operator operator, IdentifierValue operand) {
+        return intern(new UnOpResult(operator, operand));
+    }
+
+    public static Constant constant(double value) {
+        // NaN is not equal to itself, so it would never be found again
+        if (Double.isNaN(value)) {
+            return new Constant(value);
+        }
+
+        return intern(new Constant(value));
+    }
+
+    public static BooleanValue booleanValue(boolean value) {
+        return intern(new BooleanValue(value));
+    }
+
+    public static CharacterValue characterValue(char value) {
+        return intern(new CharacterValue(value));
+    }
+
+    public static StringValue stringValue(String value) {
+        return intern(new StringValue(value));
+    }
+
+    public static NullValue nullValue() {
+        return intern(new NullValue());
+    }
+
+    public static ExternalValue externalValue(String name) {
+        return intern(new ExternalValue(name));
+    }
+
+    public static SubroutineResult subroutineResult(String subroutineName) {
+        return intern(new SubroutineResult(subroutineName));
+    }
+
+    public static InitialValue initialValue(IdentifierProperties identifier) {
+        return intern(new InitialValue(identifier));
+    }
+}
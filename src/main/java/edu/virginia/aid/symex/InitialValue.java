@@ -1,13 +1,18 @@
 package edu.virginia.aid.symex;
 
+import java.util.Objects;
+
 import edu.virginia.aid.data.IdentifierProperties;
 
 public class InitialValue implements IdentifierValue {
 
-    private IdentifierProperties identifier;
+    private final IdentifierProperties identifier;
+    private final int hash;
 
     public InitialValue(IdentifierProperties identifier) {
         this.identifier = identifier;
+        // Identifiers are equal when their names and contexts are, and the context may not be set
+        this.hash = identifier == null ? 0 : Objects.hashCode(identifier.getName());
     }
 
     @Override
@@ -37,7 +42,12 @@ public class InitialValue implements IdentifierValue {
 
     @Override
     public boolean equals(Object o) {
-        return (o instanceof InitialValue) && (((InitialValue) o).identifier.equals(identifier));
+        return o == this || (o instanceof InitialValue) && ((InitialValue) o).hash == hash && Objects.equals(((InitialValue) o).identifier, identifier);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     public String toString() {
@@ -0,0 +1,155 @@
+package edu.virginia.aid.symex;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Numbering of the atomic conditions that make up a {@link BitSetSumOfProducts}. Each distinct condition is
+ * given an atom number k once, and the condition and its negation become the literals 2k and 2k + 1, so a
+ * product of literals can be stored as a bitset in which a literal and its negation share a word.
+ *
+ * Two literals conflict if either condition is disjoint with the other (see
+ * {@link IdentifierValue#isDisjointWith(IdentifierValue)}). A literal and its negation are no exception, so a
+ * product is unsatisfiable in exactly the cases {@link BooleanAndList#isUnsatisfiable()} finds. Those
+ * conflicts are found once, when a literal is added, so a product can be checked for unsatisfiability with
+ * word-wise bit operations.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class LiteralTable {
+
+    private final Map<IdentifierValue, Integer> literals = new HashMap<>();
+
+    /**
+     * The condition of each literal, null for the negation of an atom whose condition has no separate negation
+     */
+    private final List<IdentifierValue> conditions = new ArrayList<>();
+
+    /**
+     * For each literal, a bitset of the other literals it conflicts with, or null if there are none
+     */
+    private final List<long[]> conflicts = new ArrayList<>();
+
+    /**
+     * Bitset of the literals that have an entry in conflicts
+     */
+    private long[] hasConflicts = new long[0];
+
+    /**
+     * Gets the literal for a condition, numbering the condition and its negation if they have not been seen
+     * before. Conditions are numbered as given, without simplifying them, because simplifying a comparison
+     * swaps its operands; the products are only simplified once, when they are converted back.
+     *
+     * @param condition The condition to get the literal of
+     * @return The literal for the condition
+     */
+    public int getLiteral(IdentifierValue condition) {
+        Integer literal = literals.get(condition);
+        if (literal != null) {
+            return literal;
+        }
+
+        int positive = conditions.size();
+        literals.put(condition, positive);
+        conditions.add(condition);
+        conditions.add(null);
+        conflicts.add(null);
+        conflicts.add(null);
+        findConflicts(positive);
+
+        IdentifierValue negation = condition.negate();
+        if (negation != null && !literals.containsKey(negation)) {
+            literals.put(negation, positive + 1);
+            conditions.set(positive + 1, negation);
+            findConflicts(positive + 1);
+        }
+
+        return positive;
+    }
+
+    /**
+     * Gets the condition a literal stands for
+     *
+     * @param literal The literal
+     * @return The condition of the literal
+     */
+    public IdentifierValue getCondition(int literal) {
+        return conditions.get(literal);
+    }
+
+    /**
+     * Gets the number of words needed for a bitset over all literals numbered so far
+     *
+     * @return The number of 64 bit words in a product bitset
+     */
+    public int getWordCount() {
+        return (conditions.size() + 63) >>> 6;
+    }
+
+    /**
+     * Checks whether a product of literals can never be true, because it contains two conflicting literals
+     *
+     * @param product The bitset of literals in the product
+     * @return Whether the product is unsatisfiable
+     */
+    public boolean isUnsatisfiable(long[] product) {
+        int words = Math.min(product.length, hasConflicts.length);
+        for (int i = 0; i < words; i++) {
+            long candidates = product[i] & hasConflicts[i];
+            while (candidates != 0) {
+                int literal = (i << 6) + Long.numberOfTrailingZeros(candidates);
+                if (intersects(conflicts.get(literal), product)) {
+                    return true;
+                }
+                candidates &= candidates - 1;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Records the conflicts between a new literal and the literals numbered before it
+     *
+     * @param literal The new literal
+     */
+    private void findConflicts(int literal) {
+        IdentifierValue condition = conditions.get(literal);
+        for (int other = 0; other < literal; other++) {
+            IdentifierValue otherCondition = conditions.get(other);
+            if (otherCondition == null) {
+                continue;
+            }
+            if (condition.isDisjointWith(otherCondition) || otherCondition.isDisjointWith(condition)) {
+                addConflict(literal, other);
+                addConflict(other, literal);
+            }
+        }
+    }
+
+    private void addConflict(int literal, int other) {
+        long[] mask = conflicts.get(literal);
+        if (mask == null || mask.length <= (other >>> 6)) {
+            mask = mask == null ? new long[(other >>> 6) + 1] : Arrays.copyOf(mask, (other >>> 6) + 1);
+            conflicts.set(literal, mask);
+        }
+        mask[other >>> 6] |= 1L << other;
+
+        if (hasConflicts.length <= (literal >>> 6)) {
+            hasConflicts = Arrays.copyOf(hasConflicts, (literal >>> 6) + 1);
+        }
+        hasConflicts[literal >>> 6] |= 1L << literal;
+    }
+
+    private static boolean intersects(long[] a, long[] b) {
+        int words = Math.min(a.length, b.length);
+        for (int i = 0; i < words; i++) {
+            if ((a[i] & b[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
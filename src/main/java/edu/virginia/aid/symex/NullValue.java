@@ -37,6 +37,11 @@ public class NullValue implements IdentifierValue {
         return o instanceof NullValue;
     }
 
+    @Override
+    public int hashCode() {
+        return NullValue.class.getName().hashCode();
+    }
+
     public String toString() {
         return "null";
     }
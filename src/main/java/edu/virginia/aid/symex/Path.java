@@ -2,17 +2,20 @@ package edu.virginia.aid.symex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.Iterator;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
 
 import org.eclipse.jdt.core.dom.Statement;
 import org.eclipse.jdt.core.dom.ThrowStatement;
 
+import edu.virginia.aid.util.AnalysisBudget;
 import edu.virginia.aid.util.ControlFlowGraph;
+import edu.virginia.aid.util.IndexedControlFlowGraph;
 import edu.virginia.aid.visitors.ConditionVisitor;
 
 /**
@@ -24,29 +27,44 @@ import edu.virginia.aid.visitors.ConditionVisitor;
  */
 public class Path {
 
+    /**
+     * The first element of the path, or null if the path is empty. Cells are never modified, so paths
+     * extended from the same path share every cell of the path they were extended from.
+     */
+    private Cell head;
+
+    /**
+     * Indexes in the control flow graph of the statements on this path, or null if they are not known.
+     * Shared with the path this one was copied from until either is extended.
+     */
+    private BitSet statements;
+
+    /**
+     * The elements of the path as a list, built the first time they are requested
+     */
     private List<PathElement> pathElements;
 
     /**
      * Create a new empty path
      */
     public Path() {
-        pathElements = new ArrayList<>();
+        head = null;
+        statements = null;
     }
 
     /**
-     * Copy constructor
+     * Copy constructor. Takes constant time, since the copy shares the elements of the path.
      *
      * @param p The path to copy
      */
     public Path(Path p) {
-        this();
-        for (PathElement elem : p.getPathElements()) {
-            pathElements.add(elem);
-        }
+        this.head = p.head;
+        this.statements = p.statements;
+        this.pathElements = p.pathElements;
     }
 
     public Iterator<PathElement> iterator() {
-        return pathElements.iterator();
+        return getPathElements().iterator();
     }
 
     /**
@@ -58,37 +76,75 @@ public class Path {
      * @return All paths that reach the given statement
      */
     public static Collection<Path> getPathsToStatement(ControlFlowGraph cfg, Statement statement) {
-        Map<Statement, Set<Statement>> predecessors = cfg.getPredecessors();
+        return getPathsToStatement(new IndexedControlFlowGraph(cfg), statement);
+    }
+
+    /**
+     * Finds all paths from the beginning of a method to the given statement as
+     * defined by the indexed control flow graph provided
+     *
+     * @param cfg The indexed control flow graph for the method
+     * @param statement The statement to find paths to
+     * @return All paths that reach the given statement
+     */
+    public static Collection<Path> getPathsToStatement(IndexedControlFlowGraph cfg, Statement statement) {
+        return getPathsToStatement(cfg, statement, new AnalysisBudget());
+    }
 
+    /**
+     * Finds paths from the beginning of a method to the given statement as defined by the indexed control
+     * flow graph provided. The search stops early once it has found more paths than the budget allows or the
+     * method's time has run out, and the limit reached is recorded in the budget.
+     *
+     * @param cfg The indexed control flow graph for the method
+     * @param statement The statement to find paths to
+     * @param budget The budget for analyzing the method
+     * @return The paths found that reach the given statement
+     */
+    public static Collection<Path> getPathsToStatement(IndexedControlFlowGraph cfg, Statement statement, AnalysisBudget budget) {
         Path p = new Path();
         p.prependElement(new PathElement(statement));
+        p.statements = new BitSet(cfg.size());
+        if (cfg.getIndex(statement) >= 0) {
+            p.statements.set(cfg.getIndex(statement));
+        }
 
-        Set<Path> paths = new HashSet<Path>();
+        Set<Path> paths = new LinkedHashSet<Path>();
         paths.add(p);
 
-        Set<Path> extendedPaths = new HashSet<Path>();
+        Set<Path> extendedPaths = new LinkedHashSet<Path>();
         extendedPaths.add(p);
 
+        boolean complete;
         do {
             paths = extendedPaths;
-            extendedPaths = new HashSet<>();
+            extendedPaths = new LinkedHashSet<>();
 
             for (Path path : paths) {
-                extendedPaths.addAll(path.addPreviousStatement(predecessors));
+                extendedPaths.addAll(path.addPreviousStatement(cfg));
             }
-        } while (!paths.equals(extendedPaths) && extendedPaths.size() <= 100);
+
+            complete = paths.equals(extendedPaths);
+        } while (!complete && extendedPaths.size() <= budget.getMaxPaths() && !budget.isOutOfTime());
+
+        if (!complete) {
+            budget.setExceeded(extendedPaths.size() > budget.getMaxPaths() ? AnalysisBudget.Limit.PATHS : AnalysisBudget.Limit.TIME);
+        }
 
         return extendedPaths;
     }
 
-    private Set<Path> addPreviousStatement(Map<Statement, Set<Statement>> predecessors) {
-        if (predecessors.get(getFirstStatement()) == null) {
-            return new HashSet<>(Arrays.asList(this));
+    private Set<Path> addPreviousStatement(IndexedControlFlowGraph cfg) {
+        int first = cfg.getIndex(getFirstStatement());
+        if (first < 0 || cfg.getPredecessorCount(first) == 0) {
+            return new LinkedHashSet<>(Arrays.asList(this));
         }
 
-        Set<Path> extendedPaths = new HashSet<>();
-        for (Statement predecessor : predecessors.get(getFirstStatement())) {
-            if (!containsStatement(predecessor) && !(predecessor instanceof ThrowStatement)) {
+        Set<Path> extendedPaths = new LinkedHashSet<>();
+        for (int i = 0; i < cfg.getPredecessorCount(first); i++) {
+            int predecessorIndex = cfg.getPredecessor(first, i);
+            Statement predecessor = cfg.getStatement(predecessorIndex);
+            if (!statements.get(predecessorIndex) && !(predecessor instanceof ThrowStatement)) {
                 Path copy = new Path(this);
 
                 ConditionVisitor visitor = new ConditionVisitor(getFirstStatement());
@@ -99,6 +155,8 @@ public class Path {
                 }
 
                 copy.prependElement(new PathElement(predecessor));
+                copy.statements = (BitSet) statements.clone();
+                copy.statements.set(predecessorIndex);
                 extendedPaths.add(copy);
             }
         }
@@ -110,44 +168,76 @@ public class Path {
         return extendedPaths;
     }
 
-    private boolean containsStatement(Statement statement) {
-    	// Wrap statement in a PathElement for better comparison.
-    	PathElement p = new PathElement(statement);
-        return pathElements.contains(p);
-    }
-
+    /**
+     * Uses a hash cached when each element is added, rather than hashing every element
+     */
     public int hashCode() {
-        return pathElements.hashCode();
+        return head == null ? 1 : head.hash;
     }
 
+    /**
+     * Gets the elements of the path in order
+     *
+     * @return Unmodifiable list of the elements of the path
+     */
     public List<PathElement> getPathElements() {
+        if (pathElements == null) {
+            List<PathElement> elements = new ArrayList<>(head == null ? 0 : head.size);
+            for (Cell cell = head; cell != null; cell = cell.next) {
+                elements.add(cell.element);
+            }
+            pathElements = Collections.unmodifiableList(elements);
+        }
+
         return pathElements;
     }
 
     public Statement getFirstStatement() {
-        for (PathElement element : pathElements) {
-            if (element.isStatement()) {
-                return element.getStatement();
+        for (Cell cell = head; cell != null; cell = cell.next) {
+            if (cell.element.isStatement()) {
+                return cell.element.getStatement();
             }
         }
 
         return null;
     }
 
+    /**
+     * Adds an element to the start of the path in constant time. The path no longer knows which control
+     * flow graph statements it contains until they are set again.
+     *
+     * @param element The element to add
+     */
     public void prependElement(PathElement element) {
-        List<PathElement> newList = new ArrayList<>();
-        newList.add(element);
-        newList.addAll(pathElements);
-        pathElements = newList;
+        head = new Cell(element, head);
+        statements = null;
+        pathElements = null;
     }
 
     @Override
     public String toString() {
         String value = "Path: \n";
-        for (PathElement element : pathElements) {
-            value += "\t" + element.toString() + "\n";
+        for (Cell cell = head; cell != null; cell = cell.next) {
+            value += "\t" + cell.element.toString() + "\n";
         }
 
         return value;
     }
+
+    /**
+     * A single cell of an immutable linked list of path elements
+     */
+    private static class Cell {
+        final PathElement element;
+        final Cell next;
+        final int size;
+        final int hash;
+
+        Cell(PathElement element, Cell next) {
+            this.element = element;
+            this.next = next;
+            this.size = next == null ? 1 : next.size + 1;
+            this.hash = 31 * (next == null ? 1 : next.hash) + element.hashCode();
+        }
+    }
 }
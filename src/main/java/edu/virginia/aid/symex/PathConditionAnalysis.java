@@ -0,0 +1,289 @@
+package edu.virginia.aid.symex;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+
+import edu.virginia.aid.data.IdentifierProperties;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.util.AnalysisBudget;
+import edu.virginia.aid.util.IndexedControlFlowGraph;
+import edu.virginia.aid.visitors.AssignmentVisitor;
+import edu.virginia.aid.visitors.ConditionVisitor;
+import edu.virginia.aid.visitors.EvaluationVisitor;
+
+/**
+ * Computes the conditions under which execution reaches a statement as a forward dataflow problem over the
+ * control flow graph, rather than by enumerating every path to the statement. Each statement holds the
+ * symbolic states that reach it, and states arriving from different predecessors with the same memory are
+ * merged, so shared parts of paths are only executed once. The result is the same sum of products that
+ * symbolically executing each path with {@link SymbolicExecution#execute(MethodFeatures, Path)} would give,
+ * with duplicate products removed.
+ *
+ * Paths never pass through a throw statement or visit a statement twice. Edges that would close a cycle
+ * are found by a depth-first search backwards from the target and dropped, which leaves an acyclic graph
+ * whose statements can be processed in a single pass. A path starts at any statement left with no
+ * predecessors, as it does when paths are enumerated.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class PathConditionAnalysis {
+
+    private final MethodFeatures method;
+    private final IndexedControlFlowGraph cfg;
+    private final int target;
+
+    /**
+     * The budget for analyzing the method, which bounds the number of products tracked at any statement
+     */
+    private final AnalysisBudget budget;
+
+    /**
+     * Whether each statement lies on some path to the target
+     */
+    private final boolean[] onPath;
+
+    /**
+     * Whether each statement is on the stack of the depth-first search
+     */
+    private final boolean[] onStack;
+
+    /**
+     * The predecessors of each statement kept in the acyclic graph, or null for statements not on a path
+     */
+    private final List<List<Integer>> predecessors;
+
+    /**
+     * Statements on a path to the target, each after all of its predecessors
+     */
+    private final List<Integer> order = new ArrayList<>();
+
+    private PathConditionAnalysis(MethodFeatures method, IndexedControlFlowGraph cfg, int target, AnalysisBudget budget) {
+        this.method = method;
+        this.cfg = cfg;
+        this.target = target;
+        this.budget = budget;
+        this.onPath = new boolean[cfg.size()];
+        this.onStack = new boolean[cfg.size()];
+        this.predecessors = new ArrayList<>(cfg.size());
+        for (int i = 0; i < cfg.size(); i++) {
+            predecessors.add(null);
+        }
+    }
+
+    /**
+     * Finds the conditions under which execution of a method reaches a statement
+     *
+     * @param method The features of the method containing the statement
+     * @param cfg The indexed control flow graph for the method
+     * @param statement The statement to find the conditions for
+     * @return The conditions for reaching the statement, one product per distinct path condition, or null if
+     * there are more than {@link AnalysisBudget#DEFAULT_MAX_PRODUCTS} of them
+     */
+    public static SumOfProducts getConditions(MethodFeatures method, IndexedControlFlowGraph cfg, Statement statement) {
+        return getConditions(method, cfg, statement, new AnalysisBudget());
+    }
+
+    /**
+     * Finds the conditions under which execution of a method reaches a statement, giving up if the budget
+     * for analyzing the method runs out. Past the budget's product limit the conditions are reported as
+     * unknown rather than truncated.
+     *
+     * @param method The features of the method containing the statement
+     * @param cfg The indexed control flow graph for the method
+     * @param statement The statement to find the conditions for
+     * @param budget The budget for analyzing the method, in which the limit reached is recorded
+     * @return The conditions for reaching the statement, one product per distinct path condition, or null if
+     * a limit of the budget was reached
+     */
+    public static SumOfProducts getConditions(MethodFeatures method, IndexedControlFlowGraph cfg, Statement statement,
+                                              AnalysisBudget budget) {
+        int target = cfg.getIndex(statement);
+        if (target < 0) {
+            // The statement is unreachable, so only the trivial path that consists of it exists
+            return new SumOfProducts(new BooleanAndList());
+        }
+
+        PathConditionAnalysis analysis = new PathConditionAnalysis(method, cfg, target, budget);
+        analysis.search(target);
+
+        return analysis.solve();
+    }
+
+    /**
+     * Searches backwards from a statement, recording the edges of the acyclic graph and a topological order
+     *
+     * @param statement The index of the statement to search from
+     */
+    private void search(int statement) {
+        onPath[statement] = true;
+        onStack[statement] = true;
+
+        List<Integer> statementPredecessors = new ArrayList<>();
+        for (int i = 0; i < cfg.getPredecessorCount(statement); i++) {
+            int predecessor = cfg.getPredecessor(statement, i);
+            if (onStack[predecessor] || cfg.getStatement(predecessor) instanceof ThrowStatement) {
+                continue;
+            }
+
+            statementPredecessors.add(predecessor);
+            if (!onPath[predecessor]) {
+                search(predecessor);
+            }
+        }
+        predecessors.set(statement, statementPredecessors);
+
+        onStack[statement] = false;
+        order.add(statement);
+    }
+
+    /**
+     * Propagates symbolic states forward from the start of every path to the target
+     *
+     * @return The conditions for reaching the target, or null if a limit of the budget was reached
+     */
+    private SumOfProducts solve() {
+        Statement targetStatement = cfg.getStatement(target);
+
+        // States on entry to each statement, before it is executed
+        Map<Integer, List<State>> entryStates = new HashMap<>();
+
+        for (int statement : order) {
+            List<State> states = new ArrayList<>();
+            if (predecessors.get(statement).isEmpty()) {
+                Map<IdentifierProperties, IdentifierValue> memory = new HashMap<>();
+                for (IdentifierProperties variable : method.getScope().getIdentifiers()) {
+                    memory.put(variable, IdentifierValueFactory.initialValue(variable));
+                }
+                states.add(new State(memory, Collections.singletonList(new BooleanAndList())));
+            } else {
+                for (int predecessor : predecessors.get(statement)) {
+                    for (State state : entryStates.get(predecessor)) {
+                        merge(states, follow(state, cfg.getStatement(predecessor), cfg.getStatement(statement), targetStatement));
+                    }
+                }
+            }
+
+            int productCount = 0;
+            for (State state : states) {
+                productCount += state.products.size();
+            }
+            if (productCount > budget.getMaxProducts()) {
+                budget.setExceeded(AnalysisBudget.Limit.PRODUCTS);
+                return null;
+            }
+            if (budget.isOutOfTime()) {
+                budget.setExceeded(AnalysisBudget.Limit.TIME);
+                return null;
+            }
+
+            entryStates.put(statement, states);
+        }
+
+        SumOfProducts conditions = new SumOfProducts();
+        for (State state : entryStates.get(target)) {
+            for (BooleanAndList product : state.products) {
+                conditions.addProduct(product);
+            }
+        }
+
+        return conditions;
+    }
+
+    /**
+     * Executes a statement and takes the edge from it to one of its successors
+     *
+     * @param state The state on entry to the statement
+     * @param statement The statement to execute
+     * @param next The successor the edge leads to
+     * @param target The statement paths lead to
+     * @return The state on entry to the successor
+     */
+    private State follow(State state, Statement statement, Statement next, Statement target) {
+        Map<IdentifierProperties, IdentifierValue> memory = state.memory;
+
+        AssignmentVisitor assignmentVisitor = new AssignmentVisitor(method);
+        statement.accept(assignmentVisitor);
+        boolean hasAssignment = assignmentVisitor.isAssignment();
+
+        if (assignmentVisitor.getValue() != null) {
+            EvaluationVisitor evaluationVisitor = new EvaluationVisitor(memory, method);
+            assignmentVisitor.getValue().accept(evaluationVisitor);
+            memory = new HashMap<>(memory);
+            memory.put(assignmentVisitor.getVariable().getResolvedIdentifier(method), evaluationVisitor.getResult());
+        }
+
+        // Check if this statement contains the target (such as if/for/while)
+        boolean containsTarget = statement.getStartPosition() <= target.getStartPosition() &&
+                statement.getStartPosition() + statement.getLength() >= target.getStartPosition() + target.getLength();
+
+        // Only add the condition of the edge if it is part of a containing statement or has an assignment
+        IdentifierValue condition = null;
+        if (containsTarget || hasAssignment) {
+            ConditionVisitor conditionVisitor = new ConditionVisitor(next);
+            statement.accept(conditionVisitor);
+            if (conditionVisitor.getCondition() != null) {
+                EvaluationVisitor evaluationVisitor = new EvaluationVisitor(memory, method);
+                conditionVisitor.getCondition().accept(evaluationVisitor);
+                if (evaluationVisitor.getResult() != null) {
+                    condition = conditionVisitor.isNegated() ? evaluationVisitor.getResult().negate() : evaluationVisitor.getResult();
+                }
+            }
+        }
+
+        List<BooleanAndList> products = state.products;
+        if (condition != null) {
+            products = new ArrayList<>(state.products.size());
+            for (BooleanAndList product : state.products) {
+                BooleanAndList extended = new BooleanAndList(product);
+                extended.addTerm(condition);
+                products.add(extended);
+            }
+        }
+
+        return new State(memory, products);
+    }
+
+    /**
+     * Adds a state to those reaching a statement, merging it with a state that has the same memory if there is one
+     *
+     * @param states The states already reaching the statement
+     * @param state The state to add
+     */
+    private static void merge(List<State> states, State state) {
+        for (int i = 0; i < states.size(); i++) {
+            State existing = states.get(i);
+            if (existing.memory == state.memory || existing.memory.equals(state.memory)) {
+                List<BooleanAndList> products = new ArrayList<>(existing.products);
+                for (BooleanAndList product : state.products) {
+                    if (!products.contains(product)) {
+                        products.add(product);
+                    }
+                }
+                states.set(i, new State(existing.memory, products));
+                return;
+            }
+        }
+
+        states.add(state);
+    }
+
+    /**
+     * The values of the method's variables along with the conditions of every path that leaves them so.
+     * States are never modified once created, so they can be shared between statements.
+     */
+    private static class State {
+        final Map<IdentifierProperties, IdentifierValue> memory;
+        final List<BooleanAndList> products;
+
+        State(Map<IdentifierProperties, IdentifierValue> memory, List<BooleanAndList> products) {
+            this.memory = memory;
+            this.products = products;
+        }
+    }
+}
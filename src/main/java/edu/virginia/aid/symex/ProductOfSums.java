@@ -81,6 +81,24 @@ public class ProductOfSums implements IdentifierValue {
         return sumOfProducts;
     }
 
+    /**
+     * Converts to simplified sum of products form through a {@link BitSetSumOfProducts}, multiplying out one sum
+     * at a time so that unsatisfiable and repeated products are dropped before they are multiplied further
+     *
+     * @param maxProducts The number of products past which to give up
+     * @return The simplified sum of products, or null if at some point it has more than maxProducts products
+     */
+    public SumOfProducts convertToSumOfProducts(int maxProducts) {
+        BitSetSumOfProducts sumOfProducts = new BitSetSumOfProducts(new LiteralTable());
+        for (BooleanOrList sum : sums) {
+            sumOfProducts = sumOfProducts.and(sum, maxProducts);
+            if (sumOfProducts == null) {
+                return null;
+            }
+        }
+        return sumOfProducts.toSimplifiedSumOfProducts();
+    }
+
     @Override
     public boolean isDisjointWith(IdentifierValue iv) {
         return iv instanceof BooleanValue && !((BooleanValue) iv).getValue();
@@ -5,7 +5,7 @@ package edu.virginia.aid.symex;
  */
 public class StringValue implements IdentifierValue {
 
-    private String value;
+    private final String value;
 
     public StringValue(String value) {
         this.value = value;
@@ -41,6 +41,11 @@ public class StringValue implements IdentifierValue {
         return (o instanceof StringValue) && (value.equals(((StringValue) o).value));
     }
 
+    @Override
+    public int hashCode() {
+        return value.hashCode();
+    }
+
     public String toString() {
         return value;
     }
@@ -7,7 +7,7 @@ package edu.virginia.aid.symex;
  */
 public class SubroutineResult implements IdentifierValue {
 
-    private String subroutineName;
+    private final String subroutineName;
 
     public SubroutineResult(String subroutineName) {
         this.subroutineName = subroutineName;
@@ -43,6 +43,11 @@ public class SubroutineResult implements IdentifierValue {
         return (o instanceof SubroutineResult) && (subroutineName.equals(((SubroutineResult) o).subroutineName));
     }
 
+    @Override
+    public int hashCode() {
+        return subroutineName.hashCode();
+    }
+
     public String toString() {
         return subroutineName;
     }
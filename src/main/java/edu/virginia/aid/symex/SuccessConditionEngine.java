@@ -0,0 +1,28 @@
+package edu.virginia.aid.symex;
+
+/**
+ * Enumerated type indicating how a method's exceptional path conditions are negated into its success
+ * conditions
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public enum SuccessConditionEngine {
+    PRODUCTS,   // Negate into a product of sums and multiply it out, see SymbolicExecution.inverseSymEx
+    OBJECTS,    // Multiply out the negation as lists of IdentifierValues, see SymbolicExecution.inverseSymExObjects
+    BDD;        // Negate a binary decision diagram and extract a cover, see SymbolicExecution.inverseSymExBdd
+
+    /**
+     * Gets the engine with the given name, ignoring case
+     *
+     * @param name The name of the engine, as given on the command line
+     * @return The engine with that name
+     */
+    public static SuccessConditionEngine fromName(String name) {
+        return valueOf(name.toUpperCase());
+    }
+
+    @Override
+    public String toString() {
+        return name().toLowerCase();
+    }
+}
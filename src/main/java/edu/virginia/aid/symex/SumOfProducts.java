@@ -2,7 +2,9 @@ package edu.virginia.aid.symex;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 /**
  * Sum of products form for IdentifierValues
@@ -47,19 +49,26 @@ public class SumOfProducts implements IdentifierValue {
 
         SumOfProducts simplified2 = new SumOfProducts();
 
+        // The terms of each product, for checking whether one product is a subset of another
+        List<Set<IdentifierValue>> termSets = new ArrayList<>(simplified.products.size());
+        for (BooleanAndList product : simplified.products) {
+            termSets.add(new HashSet<>(product.getTerms()));
+        }
+        List<Set<IdentifierValue>> keptTermSets = new ArrayList<>();
+
         // Reduce the number of terms
         for (int i = 0; i < simplified.products.size(); i++) {
             boolean found = false;
             for (int j = i + 1; j < simplified.products.size(); j++) {
-                if (simplified.products.get(i).isSubsetOf(simplified.products.get(j))) {
+                if (simplified.products.get(i).isSubsetOf(termSets.get(j))) {
                     found = true;
                     break;
                 }
             }
 
             if (!found) {
-                for (BooleanAndList product : simplified2.products) {
-                    if (simplified.products.get(i).isSubsetOf(product)) {
+                for (Set<IdentifierValue> keptTerms : keptTermSets) {
+                    if (simplified.products.get(i).isSubsetOf(keptTerms)) {
                         found = true;
                         break;
                     }
@@ -68,6 +77,7 @@ public class SumOfProducts implements IdentifierValue {
 
             if (!found) {
                 simplified2.products.add(simplified.products.get(i));
+                keptTermSets.add(termSets.get(i));
             }
         }
         return simplified2;
@@ -8,6 +8,7 @@ import org.eclipse.jdt.core.dom.Statement;
 
 import edu.virginia.aid.data.IdentifierProperties;
 import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.util.AnalysisBudget;
 import edu.virginia.aid.visitors.AssignmentVisitor;
 import edu.virginia.aid.visitors.EvaluationVisitor;
 
@@ -21,33 +22,128 @@ public class SymbolicExecution {
         for (Path path : paths) {
             allConditions.addProduct(execute(method, path));
         }
-        
+
+        return inverseSymEx(allConditions);
+    }
+
+    /**
+     * Negates the conditions under which a set of paths is taken, giving the conditions under which none of
+     * them is taken
+     *
+     * @param allConditions The conditions for taking each path, such as those found by {@link PathConditionAnalysis}
+     * @return The negated conditions in simplified sum of products form, or null if they are unknown or too large
+     */
+    public static SumOfProducts inverseSymEx(SumOfProducts allConditions) {
+        return inverseSymEx(allConditions, new AnalysisBudget());
+    }
+
+    /**
+     * Negates the conditions under which a set of paths is taken, giving the conditions under which none of
+     * them is taken, as long as the negation has no more products than the budget allows
+     *
+     * @param allConditions The conditions for taking each path, such as those found by {@link PathConditionAnalysis}
+     * @param budget The budget for analyzing the method, in which the product limit is recorded if it is reached
+     * @return The negated conditions in simplified sum of products form, or null if they are unknown or too large
+     */
+    public static SumOfProducts inverseSymEx(SumOfProducts allConditions, AnalysisBudget budget) {
+        ProductOfSums negatedConditions = negate(allConditions);
+        if (negatedConditions == null) {
+            return null;
+        }
+
+        SumOfProducts successConditions = negatedConditions.convertToSumOfProducts(budget.getMaxProducts());
+        if (successConditions == null) {
+            budget.setExceeded(AnalysisBudget.Limit.PRODUCTS);
+        }
+        return successConditions;
+    }
+
+    /**
+     * Negates the conditions under which a set of paths is taken by multiplying out the negation as lists of
+     * IdentifierValues, as was done before {@link BitSetSumOfProducts}. The product limit applies to the size of
+     * the full cross product, before any product is dropped. Kept as a fallback for the bitset conversion.
+     *
+     * @param allConditions The conditions for taking each path, such as those found by {@link PathConditionAnalysis}
+     * @param budget The budget for analyzing the method, in which the product limit is recorded if it is reached
+     * @return The negated conditions in simplified sum of products form, or null if they are unknown or too large
+     */
+    public static SumOfProducts inverseSymExObjects(SumOfProducts allConditions, AnalysisBudget budget) {
+        ProductOfSums negatedConditions = negate(allConditions);
+        if (negatedConditions == null) {
+            return null;
+        }
+
+        // Stop multiplying once past the limit, since the full cross product can overflow a long
+        long numProducts = 1;
+        for (BooleanOrList sum : negatedConditions.getSums()) {
+            numProducts *= sum.getTerms().size();
+            if (numProducts > budget.getMaxProducts()) {
+                budget.setExceeded(AnalysisBudget.Limit.PRODUCTS);
+                return null;
+            }
+        }
+        return negatedConditions.convertToSumOfProducts().simplifyKeepType();
+    }
+
+    /**
+     * Negates each product of a set of path conditions into a sum of the negations of its terms
+     *
+     * @param allConditions The conditions for taking each path
+     * @return The negation as a product of sums, or null if the conditions are unknown or there are none
+     */
+    private static ProductOfSums negate(SumOfProducts allConditions) {
         // Check if any conditions null, if so return null.
-        if (!allConditions.isComplete()) return null;
+        if (allConditions == null || !allConditions.isComplete()) return null;
 
         SumOfProducts allConditionsSimplified = allConditions.simplifyKeepType();
+        if (allConditionsSimplified.getProducts().isEmpty()) {
+            return null;
+        }
 
         ProductOfSums negatedConditions = new ProductOfSums();
-        if (allConditionsSimplified.getProducts().size() > 0) {
-            for (BooleanAndList condition : allConditionsSimplified.getProducts()) {
-                BooleanOrList negatedCondition = new BooleanOrList();
-                for (IdentifierValue conditionTerm : condition.getTerms()) {
-                    negatedCondition.addTerm(conditionTerm.negate());
-                }
-                negatedConditions.addSum(negatedCondition);
+        for (BooleanAndList condition : allConditionsSimplified.getProducts()) {
+            BooleanOrList negatedCondition = new BooleanOrList();
+            for (IdentifierValue conditionTerm : condition.getTerms()) {
+                negatedCondition.addTerm(conditionTerm.negate());
             }
+            negatedConditions.addSum(negatedCondition);
+        }
+        return negatedConditions;
+    }
+
+    /**
+     * Negates the conditions under which a set of paths is taken using a binary decision diagram. The
+     * conditions are built into a BDD over their atomic terms, negated without multiplying anything out, and
+     * only the negation is turned back into a sum of products, as an irredundant cover.
+     *
+     * @param allConditions The conditions for taking each path, such as those found by {@link PathConditionAnalysis}
+     * @param budget The budget for analyzing the method, in which the product and time limits are recorded if reached
+     * @return The negated conditions in simplified sum of products form, or null if they are unknown or too large
+     */
+    public static SumOfProducts inverseSymExBdd(SumOfProducts allConditions, AnalysisBudget budget) {
+        if (allConditions == null || !allConditions.isComplete()) return null;
 
-            long numProducts = negatedConditions.getSums().stream()
-                    .mapToLong(s -> s.getTerms().size())
-                    .reduce(1l, (len, acc) -> acc * len);
-            if (numProducts > 1000) {
+        SumOfProducts allConditionsSimplified = allConditions.simplifyKeepType();
+        if (allConditionsSimplified.getProducts().isEmpty()) {
+            return null;
+        }
+
+        BinaryDecisionDiagram bdd = new BinaryDecisionDiagram();
+        int exceptional = BinaryDecisionDiagram.FALSE;
+        for (BooleanAndList condition : allConditionsSimplified.getProducts()) {
+            exceptional = bdd.or(exceptional, bdd.fromCondition(condition));
+            if (budget.isOutOfTime()) {
+                budget.setExceeded(AnalysisBudget.Limit.TIME);
                 return null;
-            } else {
-                return negatedConditions.convertToSumOfProducts().simplifyKeepType();
             }
-        } else  {
+        }
+
+        SumOfProducts successConditions = bdd.toSumOfProducts(bdd.not(exceptional), budget.getMaxProducts());
+        if (successConditions == null) {
+            budget.setExceeded(AnalysisBudget.Limit.PRODUCTS);
             return null;
         }
+        return successConditions.simplifyKeepType();
     }
 
     /**
@@ -60,7 +156,7 @@ public class SymbolicExecution {
     public static BooleanAndList execute(MethodFeatures method, Path path) {
         Map<IdentifierProperties, IdentifierValue> memory = new HashMap<>();
         for (IdentifierProperties variable : method.getScope().getIdentifiers()) {
-            memory.put(variable, new InitialValue(variable));
+            memory.put(variable, IdentifierValueFactory.initialValue(variable));
         }
 
         BooleanAndList conditions = new BooleanAndList();
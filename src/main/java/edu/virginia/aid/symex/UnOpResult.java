@@ -1,5 +1,7 @@
 package edu.virginia.aid.symex;
 
+import java.util.Objects;
+
 import org.eclipse.jdt.core.dom.PrefixExpression;
 
 /**
@@ -9,12 +11,14 @@ import org.eclipse.jdt.core.dom.PrefixExpression;
  */
 public class UnOpResult implements IdentifierValue {
 
-    private PrefixExpression.Operator operator;
-    private IdentifierValue operand;
+    private final PrefixExpression.Operator operator;
+    private final IdentifierValue operand;
+    private final int hash;
 
     public UnOpResult(PrefixExpression.Operator operator, IdentifierValue operand) {
         this.operator = operator;
         this.operand = operand;
+        this.hash = 31 * Objects.hashCode(operator == null ? null : operator.toString()) + Objects.hashCode(operand);
     }
 
     @Override
@@ -32,17 +36,17 @@ public class UnOpResult implements IdentifierValue {
         if (operand instanceof Constant) {
             double value = ((Constant) operand).getValue();
             if (operator.equals(PrefixExpression.Operator.MINUS)) {
-                return new Constant(-value);
+                return IdentifierValueFactory.constant(-value);
             } else if (operator.equals(PrefixExpression.Operator.PLUS)) {
-                return new Constant(+value);
+                return IdentifierValueFactory.constant(+value);
             }
         } else if (operand instanceof BooleanValue) {
             boolean value = ((BooleanValue) operand).getValue();
             if (operator.equals(PrefixExpression.Operator.NOT)) {
-                return new BooleanValue(!value);
+                return IdentifierValueFactory.booleanValue(!value);
             }
         }
-        return new UnOpResult(operator, operand);
+        return IdentifierValueFactory.unOpResult(operator, operand);
     }
 
     @Override
@@ -62,7 +66,13 @@ public class UnOpResult implements IdentifierValue {
 
     @Override
     public boolean equals(Object o) {
-        return (o instanceof UnOpResult) && (((UnOpResult) o).operator.equals(operator)) && (operand.equals(((UnOpResult) o).operand));
+        return o == this || (o instanceof UnOpResult) && ((UnOpResult) o).hash == hash &&
+                Objects.equals(((UnOpResult) o).operator, operator) && Objects.equals(operand, ((UnOpResult) o).operand);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
     }
 
     public String toString() {
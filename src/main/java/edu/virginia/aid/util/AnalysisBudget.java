@@ -0,0 +1,151 @@
+package edu.virginia.aid.util;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Limits on how much work the analysis of a single method may do. A budget bounds the wall-clock time spent
+ * on the method, the number of control flow paths enumerated to any one statement and the number of products
+ * in any sum of products built while finding the method's success conditions. When a limit is reached the
+ * analysis gives up on that part of the method rather than stalling the whole run, and the budget records
+ * which limits were reached.
+ *
+ * A budget created from the command line options only holds the limits. Each method is analyzed under its
+ * own copy, made with {@link #AnalysisBudget(AnalysisBudget)}, which starts the method's clock.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class AnalysisBudget {
+
+    /**
+     * The limits a budget can place on the analysis of a method
+     */
+    public enum Limit {
+        TIME,
+        PATHS,
+        PRODUCTS;
+
+        @Override
+        public String toString() {
+            return name().toLowerCase();
+        }
+    }
+
+    /**
+     * Default time limit, where 0 means no limit
+     */
+    public static final long DEFAULT_TIMEOUT_MILLIS = 0;
+
+    /**
+     * Default limit on the number of paths enumerated to a statement
+     */
+    public static final int DEFAULT_MAX_PATHS = 100;
+
+    /**
+     * Default limit on the number of products in a sum of products
+     */
+    public static final int DEFAULT_MAX_PRODUCTS = 1000;
+
+    private final long timeoutMillis;
+    private final int maxPaths;
+    private final int maxProducts;
+
+    /**
+     * Value of System.nanoTime() when the analysis of the method began
+     */
+    private final long startTime;
+
+    /**
+     * The limits the method's analysis has reached
+     */
+    private final Set<Limit> exceededLimits = EnumSet.noneOf(Limit.class);
+
+    /**
+     * Creates a budget with the default limits
+     */
+    public AnalysisBudget() {
+        this(DEFAULT_TIMEOUT_MILLIS, DEFAULT_MAX_PATHS, DEFAULT_MAX_PRODUCTS);
+    }
+
+    /**
+     * Creates a budget with the given limits
+     *
+     * @param timeoutMillis The wall-clock time allowed for each method in milliseconds, or 0 for no limit
+     * @param maxPaths The number of paths to a statement past which path enumeration stops
+     * @param maxProducts The number of products past which a method's success conditions are given up on
+     */
+    public AnalysisBudget(long timeoutMillis, int maxPaths, int maxProducts) {
+        this.timeoutMillis = timeoutMillis;
+        this.maxPaths = maxPaths;
+        this.maxProducts = maxProducts;
+        this.startTime = System.nanoTime();
+    }
+
+    /**
+     * Creates a budget for analyzing one method, with the same limits as another budget. The method's time
+     * starts counting when the budget is created.
+     *
+     * @param limits The budget to copy the limits of
+     */
+    public AnalysisBudget(AnalysisBudget limits) {
+        this(limits.timeoutMillis, limits.maxPaths, limits.maxProducts);
+    }
+
+    public long getTimeoutMillis() {
+        return timeoutMillis;
+    }
+
+    public int getMaxPaths() {
+        return maxPaths;
+    }
+
+    public int getMaxProducts() {
+        return maxProducts;
+    }
+
+    /**
+     * Checks whether the time allowed for the method has run out
+     *
+     * @return Whether there is a time limit and it has passed
+     */
+    public boolean isOutOfTime() {
+        return timeoutMillis > 0 && System.nanoTime() - startTime >= timeoutMillis * 1000000;
+    }
+
+    /**
+     * Records that the analysis of the method reached a limit
+     *
+     * @param limit The limit reached
+     */
+    public void setExceeded(Limit limit) {
+        exceededLimits.add(limit);
+    }
+
+    /**
+     * Checks whether the analysis of the method reached a limit
+     *
+     * @param limit The limit to check
+     * @return Whether the limit was reached
+     */
+    public boolean isExceeded(Limit limit) {
+        return exceededLimits.contains(limit);
+    }
+
+    /**
+     * Gets the limits the analysis of the method reached
+     *
+     * @return The limits reached, empty if the analysis stayed within the budget
+     */
+    public Set<Limit> getExceededLimits() {
+        return Collections.unmodifiableSet(exceededLimits);
+    }
+
+    /**
+     * Describes the limits of the budget, for cache keys and reports
+     */
+    @Override
+    public String toString() {
+        return "timeout=" + timeoutMillis + "ms, paths=" + maxPaths + ", products=" + maxProducts;
+    }
+}
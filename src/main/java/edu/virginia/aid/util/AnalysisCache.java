@@ -0,0 +1,461 @@
+package edu.virginia.aid.util;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+import edu.virginia.aid.data.ClassInformation;
+import edu.virginia.aid.data.CommentInfo;
+import edu.virginia.aid.data.IdentifierProperties;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.data.MethodInvocationProperties;
+import edu.virginia.aid.data.SourceContext;
+import edu.virginia.aid.detectors.StoplistProcessor;
+import edu.virginia.aid.symex.BooleanAndList;
+import edu.virginia.aid.symex.IdentifierValue;
+import edu.virginia.aid.symex.IdentifierValueFactory;
+import edu.virginia.aid.symex.SuccessConditionEngine;
+import edu.virginia.aid.symex.SumOfProducts;
+
+/**
+ * On-disk cache of the results of analyzing a source file. Entries are keyed by a hash of the file's
+ * contents together with the cache format version, the primary action training set, the analysis
+ * budget, the success condition engine and the stoplist, so a file only has to be parsed and run through the
+ * feature detectors again when it (or the analysis) changes.
+ *
+ * Each entry stores everything that comparing and ranking methods needs: the class name and comments,
+ * and for each method its location, Javadoc text, processed identifiers, primary action and object,
+ * conditions for success and the analysis budget limits it reached. Restored methods do not carry any AST
+ * nodes, and their conditions for success are rebuilt from the text of each term rather than as the
+ * original symbolic values.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class AnalysisCache {
+
+    /**
+     * Version of the entry format and of the analysis producing it. Bump this whenever either changes.
+     */
+    public static final int FORMAT_VERSION = 5;
+
+    private static final int MAGIC = 0x41494443;
+
+    /**
+     * Directory holding one file per cache entry
+     */
+    private final File directory;
+
+    /**
+     * Hash of everything other than the source file that affects the analysis results
+     */
+    private final byte[] analysisDigest;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache stored in the given directory for results found within the given analysis budget, with
+     * the given success condition engine and stoplist, creating the directory if necessary. Results found
+     * under different settings are kept apart. The default settings are {@code new AnalysisBudget()},
+     * {@link SuccessConditionEngine#PRODUCTS} and {@link StoplistProcessor#DEFAULT}.
+     *
+     * @param directory The directory to store cache entries in
+     * @param analysisBudget The limits on analyzing each method
+     * @param successConditionEngine The engine used to find each method's success conditions
+     * @param stoplist The stop words removed from comments and identifiers
+     */
+    public AnalysisCache(File directory, AnalysisBudget analysisBudget, SuccessConditionEngine successConditionEngine,
+                         Stoplist stoplist) {
+        this.directory = directory;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException("Could not create analysis cache directory " + directory);
+        }
+
+        MessageDigest digest = newDigest();
+        digest.update(Integer.toString(FORMAT_VERSION).getBytes(StandardCharsets.UTF_8));
+        digest.update(analysisBudget.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(successConditionEngine.toString().getBytes(StandardCharsets.UTF_8));
+        digest.update(stoplist.toString().getBytes(StandardCharsets.UTF_8));
+        try {
+            Path trainingSet = Paths.get(Driver.CLASSIFICATION_TRAINING_SET_FILEPATH);
+            if (Files.isRegularFile(trainingSet)) {
+                digest.update(Files.readAllBytes(trainingSet));
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.analysisDigest = digest.digest();
+    }
+
+    /**
+     * Computes the cache key for a source file
+     *
+     * @param fileContents The raw contents of the source file
+     * @return The key for the file's cache entry
+     */
+    public String getKey(byte[] fileContents) {
+        MessageDigest digest = newDigest();
+        digest.update(analysisDigest);
+        digest.update(fileContents);
+
+        StringBuilder key = new StringBuilder();
+        for (byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+
+        return key.toString();
+    }
+
+    /**
+     * Restores the methods of a previously analyzed file
+     *
+     * @param key The cache key for the file
+     * @param filepath The path of the file being analyzed
+     * @param fileData The contents of the file being analyzed
+     * @return The restored methods, or null if the file is not in the cache
+     */
+    public List<MethodFeatures> load(String key, String filepath, String fileData) {
+        File entry = getEntryFile(key);
+        if (!entry.isFile()) {
+            misses.increment();
+            return null;
+        }
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(entry.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                misses.increment();
+                return null;
+            }
+
+            List<MethodFeatures> methods = readMethods(in, filepath, fileData);
+            hits.increment();
+            return methods;
+        } catch (IOException | RuntimeException e) {
+            // A truncated, unreadable or corrupt entry is simply treated as missing and rewritten
+            misses.increment();
+            return null;
+        }
+    }
+
+    /**
+     * Stores the analyzed methods of a file. The entry is written to a temporary file first and then
+     * moved into place, so concurrent readers never see a partial entry. Files with a method that ran out of
+     * time are not stored, since the method may be analyzed fully on another run. If the entry cannot be
+     * written, the failure is reported and the file is simply not cached.
+     *
+     * @param key The cache key for the file
+     * @param classInformation The class found in the file, or null if there was none
+     * @param methods All of the analyzed methods in the file
+     */
+    public void store(String key, ClassInformation classInformation, List<MethodFeatures> methods) {
+        for (MethodFeatures method : methods) {
+            if (method.getExceededBudgetLimits().contains(AnalysisBudget.Limit.TIME)) {
+                return;
+            }
+        }
+
+        Path temp = null;
+        try {
+            temp = Files.createTempFile(directory.toPath(), key, ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                writeMethods(out, classInformation, methods);
+            }
+
+            Path entry = getEntryFile(key).toPath();
+            try {
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                // The temporary file is in the same directory, so a plain rename is still atomic on most filesystems
+                Files.move(temp, entry, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not write analysis cache entry " + getEntryFile(key) + ": " + e);
+            if (temp != null) {
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException deleteException) {
+                    System.err.println("Could not delete temporary analysis cache file " + temp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Gets the number of files restored from the cache
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of files that had to be analyzed
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the fraction of files restored from the cache
+     *
+     * @return The hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    private File getEntryFile(String key) {
+        return new File(directory, key + ".cache");
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void writeMethods(DataOutputStream out, ClassInformation classInformation, List<MethodFeatures> methods) throws IOException {
+        out.writeBoolean(classInformation != null);
+        if (classInformation == null) {
+            return;
+        }
+
+        out.writeUTF(classInformation.getClassName());
+        out.writeInt(classInformation.getStartPos());
+        out.writeInt(classInformation.getEndPos());
+
+        // Comments are stored after processing, since their text is rewritten by the stemmer and stoplist
+        out.writeInt(classInformation.getComments().size());
+        for (CommentInfo comment : classInformation.getComments()) {
+            out.writeInt(comment.getStartPos());
+            out.writeInt(comment.getEndPos());
+            writeString(out, comment.getCommentText());
+        }
+
+        out.writeInt(methods.size());
+        for (MethodFeatures method : methods) {
+            out.writeUTF(method.getMethodName());
+            writeString(out, method.getProcessedMethodName());
+            writeString(out, method.getReturnType());
+            out.writeInt(method.getStartPos());
+            out.writeInt(method.getEndPos());
+            writeString(out, method.getJavadocText());
+            writeString(out, method.getJavadocSummary());
+
+            out.writeInt(method.getBooleanFeatures().size());
+            for (Map.Entry<String, Boolean> feature : method.getBooleanFeatures().entrySet()) {
+                out.writeUTF(feature.getKey());
+                out.writeBoolean(feature.getValue());
+            }
+            out.writeInt(method.getStringFeatures().size());
+            for (Map.Entry<String, String> feature : method.getStringFeatures().entrySet()) {
+                out.writeUTF(feature.getKey());
+                writeString(out, feature.getValue());
+            }
+            out.writeInt(method.getNumericFeatures().size());
+            for (Map.Entry<String, Integer> feature : method.getNumericFeatures().entrySet()) {
+                out.writeUTF(feature.getKey());
+                out.writeInt(feature.getValue());
+            }
+
+            out.writeInt(method.getScope().getIdentifiers().size());
+            for (IdentifierProperties identifier : method.getScope().getIdentifiers()) {
+                out.writeBoolean(identifier instanceof MethodInvocationProperties);
+                writeString(out, identifier.getName());
+                writeString(out, identifier.getProcessedName());
+                out.writeBoolean(identifier.hasBeenProcessed());
+                writeString(out, identifier.getType());
+                out.writeInt(identifier.getContext() == null ? -1 : identifier.getContext().ordinal());
+                out.writeInt(identifier.getStartPos());
+                out.writeInt(identifier.getEndPos());
+                out.writeInt(identifier.getReads());
+                out.writeInt(identifier.getWrites());
+                out.writeInt(identifier.getInvocations());
+                out.writeBoolean(identifier.isInReturnStatement());
+            }
+
+            writeString(out, method.getPrimaryAction());
+            writeString(out, method.getPrimaryObject());
+
+            SumOfProducts conditionsForSuccess = (SumOfProducts) method.getConditionsForSuccess();
+            out.writeBoolean(conditionsForSuccess != null);
+            if (conditionsForSuccess != null) {
+                out.writeInt(conditionsForSuccess.getProducts().size());
+                for (BooleanAndList product : conditionsForSuccess.getProducts()) {
+                    out.writeInt(product.getTerms().size());
+                    for (IdentifierValue term : product.getTerms()) {
+                        writeString(out, String.valueOf(term));
+                    }
+                }
+            }
+            out.writeBoolean(method.isConditionsForSuccessIncomplete());
+
+            out.writeInt(method.getExceededBudgetLimits().size());
+            for (AnalysisBudget.Limit limit : method.getExceededBudgetLimits()) {
+                out.writeInt(limit.ordinal());
+            }
+        }
+    }
+
+    private static List<MethodFeatures> readMethods(DataInputStream in, String filepath, String fileData) throws IOException {
+        List<MethodFeatures> methods = new ArrayList<>();
+        if (!in.readBoolean()) {
+            return methods;
+        }
+
+        SourceContext sourceContext = new SourceContext(fileData);
+        ClassInformation classInformation = new ClassInformation(in.readUTF(), filepath, in.readInt(), in.readInt(), sourceContext);
+
+        int commentCount = in.readInt();
+        for (int i = 0; i < commentCount; i++) {
+            CommentInfo comment = new CommentInfo(in.readInt(), in.readInt(), sourceContext);
+            comment.setCommentText(readString(in));
+            classInformation.addComment(comment);
+        }
+
+        int methodCount = in.readInt();
+        for (int i = 0; i < methodCount; i++) {
+            String methodName = in.readUTF();
+            String processedMethodName = readString(in);
+            String returnType = readString(in);
+            MethodFeatures method = new MethodFeatures(methodName, classInformation, filepath, returnType, in.readInt(), in.readInt(), sourceContext);
+            method.setProcessedMethodName(processedMethodName);
+            String javadocText = readString(in);
+            method.setJavadoc(javadocText, readString(in));
+
+            int booleanFeatureCount = in.readInt();
+            for (int j = 0; j < booleanFeatureCount; j++) {
+                method.addBooleanFeature(in.readUTF(), in.readBoolean());
+            }
+            int stringFeatureCount = in.readInt();
+            for (int j = 0; j < stringFeatureCount; j++) {
+                method.addStringFeature(in.readUTF(), readString(in));
+            }
+            int numericFeatureCount = in.readInt();
+            for (int j = 0; j < numericFeatureCount; j++) {
+                method.addNumericFeature(in.readUTF(), in.readInt());
+            }
+
+            int identifierCount = in.readInt();
+            for (int j = 0; j < identifierCount; j++) {
+                boolean invocation = in.readBoolean();
+                String name = readString(in);
+                String processedName = readString(in);
+                boolean processed = in.readBoolean();
+                String type = readString(in);
+                int context = in.readInt();
+                int startPos = in.readInt();
+                int endPos = in.readInt();
+
+                // Construct with the processed name so it is kept as-is even if it was never processed
+                IdentifierProperties identifier = invocation ?
+                        new MethodInvocationProperties(processedName, startPos, endPos, sourceContext) :
+                        new IdentifierProperties(processedName, startPos, endPos, sourceContext);
+                identifier.setSplitName(name);
+                if (processed) {
+                    identifier.setProcessedName(processedName);
+                }
+                identifier.setType(type);
+                identifier.setContext(context < 0 ? null : readOrdinal(IdentifierProperties.IdentifierContext.values(), context));
+                identifier.addReads(in.readInt());
+                identifier.addWrites(in.readInt());
+                identifier.addInvocations(in.readInt());
+                identifier.setInReturnStatement(in.readBoolean());
+
+                method.getScope().addVariable(identifier);
+            }
+
+            method.setPrimaryAction(readString(in));
+            method.setPrimaryObject(readString(in));
+
+            if (in.readBoolean()) {
+                SumOfProducts conditionsForSuccess = new SumOfProducts();
+                int productCount = in.readInt();
+                for (int j = 0; j < productCount; j++) {
+                    BooleanAndList product = new BooleanAndList();
+                    int termCount = in.readInt();
+                    for (int k = 0; k < termCount; k++) {
+                        product.addTerm(IdentifierValueFactory.externalValue(readString(in)));
+                    }
+                    conditionsForSuccess.addProduct(product);
+                }
+                method.setConditionsForSuccess(conditionsForSuccess);
+            }
+            method.setConditionsForSuccessIncomplete(in.readBoolean());
+
+            Set<AnalysisBudget.Limit> exceededBudgetLimits = EnumSet.noneOf(AnalysisBudget.Limit.class);
+            int limitCount = in.readInt();
+            for (int j = 0; j < limitCount; j++) {
+                exceededBudgetLimits.add(readOrdinal(AnalysisBudget.Limit.values(), in.readInt()));
+            }
+            method.setExceededBudgetLimits(exceededBudgetLimits);
+
+            methods.add(method);
+        }
+
+        return methods;
+    }
+
+    /**
+     * Writes a possibly null string of any length (unlike writeUTF, which is limited to 64KB)
+     */
+    private static void writeString(DataOutputStream out, String s) throws IOException {
+        if (s == null) {
+            out.writeInt(-1);
+        } else {
+            byte[] bytes = s.getBytes(StandardCharsets.UTF_8);
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < -1 || length > in.available()) {
+            throw new IOException("Bad string length " + length + " in analysis cache entry");
+        }
+
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Looks up an enum constant by an ordinal read from an entry, rejecting ordinals the enum does not have
+     */
+    private static <E extends Enum<E>> E readOrdinal(E[] values, int ordinal) throws IOException {
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IOException("Bad ordinal " + ordinal + " in analysis cache entry");
+        }
+        return values[ordinal];
+    }
+}
@@ -2,29 +2,34 @@ package edu.virginia.aid.util;
 
 import java.io.File;
 import java.io.FileNotFoundException;
-import java.io.IOException;
 import java.io.PrintWriter;
 import java.text.DecimalFormat;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Queue;
 import java.util.Scanner;
 import java.util.regex.Pattern;
 
-import edu.mit.jwi.Dictionary;
-import edu.mit.jwi.IDictionary;
 import edu.virginia.aid.comparison.Difference;
 import edu.virginia.aid.comparison.MethodDifferences;
+import edu.virginia.aid.data.CorpusStatistics;
 import edu.virginia.aid.data.MethodFeatures;
 import edu.virginia.aid.data.MethodSignature;
+import edu.virginia.aid.detectors.StoplistProcessor;
 import edu.virginia.aid.parsers.AntProjectMethodParser;
 import edu.virginia.aid.parsers.DirectoryMethodParser;
 import edu.virginia.aid.parsers.FileMethodParser;
 import edu.virginia.aid.parsers.IndividualMethodParser;
 import edu.virginia.aid.parsers.MethodParser;
+import edu.virginia.aid.symex.SuccessConditionEngine;
 import org.apache.commons.cli.*;
 import org.eclipse.jdt.core.dom.MethodDeclaration;
 
@@ -38,7 +43,6 @@ import org.eclipse.jdt.core.dom.MethodDeclaration;
  */
 public class Driver {
 	
-    public static final String WORDNET_FILEPATH = "wordnet/dict";
     public static final String CLASSIFICATION_TRAINING_SET_FILEPATH = "training/primaryAction.arff";
 
     /**
@@ -48,41 +52,130 @@ public class Driver {
      * @return Sorted list of differences for each method
      */
     public static List<MethodDifferences> compareAndRank(List<MethodFeatures> methodFeaturesList) {
+        return compareAndRank(methodFeaturesList, 0);
+    }
+
+    /**
+     * Performs comparison check on each method and sorts them from most to least different. If topK is positive,
+     * only the topK most different methods are kept: each method's differences are streamed through a bounded
+     * heap and detached from the method, so ranking holds on to the differences and source text of only topK
+     * methods. The list of methods is not modified, so the caller's list keeps every method reachable; see
+     * {@link #drainAndRank(Queue, int)} to let each method be collected once it is scored.
+     *
+     * @param methodFeaturesList Feature information for each method
+     * @param topK The number of most different methods to keep, or 0 to keep all of them
+     * @return Sorted list of differences for each method kept
+     */
+    public static List<MethodDifferences> compareAndRank(List<MethodFeatures> methodFeaturesList, int topK) {
+        return compareAndRank(methodFeaturesList, methodFeaturesList.iterator(), topK);
+    }
+
+    /**
+     * Performs comparison check on each method and sorts them from most to least different, taking ownership of
+     * the methods: each method is removed from the queue as soon as it is scored. If topK is positive and the
+     * caller keeps no other reference to the methods, each method's features, class and source file can be
+     * garbage collected once the method is scored, so after the document frequencies are counted the ranking
+     * holds on to only topK methods' differences and source text.
+     *
+     * @param methods Feature information for each method, empty once the methods are ranked
+     * @param topK The number of most different methods to keep, or 0 to keep all of them
+     * @return Sorted list of differences for each method kept
+     */
+    public static List<MethodDifferences> drainAndRank(Queue<MethodFeatures> methods, int topK) {
+        return compareAndRank(methods, new Iterator<MethodFeatures>() {
+            @Override
+            public boolean hasNext() {
+                return !methods.isEmpty();
+            }
+
+            @Override
+            public MethodFeatures next() {
+                return methods.remove();
+            }
+        }, topK);
+    }
+
+    /**
+     * Ranks methods in two passes, counting document frequencies over all of them and then scoring each one
+     *
+     * @param methods Feature information for each method, for the document frequencies
+     * @param methodsToScore The same methods, in order, for scoring
+     * @param topK The number of most different methods to keep, or 0 to keep all of them
+     * @return Sorted list of differences for each method kept
+     */
+    private static List<MethodDifferences> compareAndRank(Iterable<MethodFeatures> methods,
+            Iterator<MethodFeatures> methodsToScore, int topK) {
         List<MethodDifferences> differences = new ArrayList<MethodDifferences>();
 
-        // Pass one to get words for TFIDF
-        List<Map<String, Integer>> allProjectWordFrequencies = new ArrayList<>();
+        // Pass one to get document frequencies for TFIDF
+        CorpusStatistics corpus = new CorpusStatistics();
 
-        for (MethodFeatures methodFeatures : methodFeaturesList) {
-        	allProjectWordFrequencies.add(methodFeatures.getWordFrequencies());
+        for (MethodFeatures methodFeatures : methods) {
+        	corpus.addDocument(methodFeatures.getWordFrequencies(corpus.getTerms()));
         }
 
-        File wordNetFile = new File(WORDNET_FILEPATH);
-        IDictionary wordNetDictionary = new Dictionary(wordNetFile);
-        try {
-			wordNetDictionary.open();
-		} catch (IOException e) {
-			e.printStackTrace();
-		}
+        SynonymCache synonymCache = WordNetProvider.getSynonymCache();
+
+        // Ties are broken by position so that the methods kept are exactly the first topK of a full ranking
+        Comparator<RankedMethod> ranking = Comparator.<RankedMethod, MethodDifferences>comparing(ranked -> ranked.differences)
+                .thenComparingInt(ranked -> ranked.position);
+        PriorityQueue<RankedMethod> mostDifferent = new PriorityQueue<>(Math.max(1, topK + 1), ranking.reversed());
 
         System.out.print("Computed differences for 0 methods");
 
         // Pass two to calculate differences.
-        for (MethodFeatures methodFeatures : methodFeaturesList) {
+        int position = 0;
+        while (methodsToScore.hasNext()) {
+            MethodFeatures methodFeatures = methodsToScore.next();
             // TODO: Create phases to guarantee TFIDF is calculated before differences are found.
-            methodFeatures.calculateTFIDF(allProjectWordFrequencies);
-            differences.add(methodFeatures.getDifferences(wordNetDictionary));
+            methodFeatures.calculateTFIDF(corpus);
+            MethodDifferences methodDifferences = methodFeatures.getDifferences(synonymCache);
+
+            if (topK > 0) {
+                methodDifferences.detach();
+                mostDifferent.add(new RankedMethod(methodDifferences, position));
+                if (mostDifferent.size() > topK) {
+                    mostDifferent.poll();
+                }
+            } else {
+                differences.add(methodDifferences);
+            }
 
-            System.out.print("\rComputed differences for " + differences.size() + " methods");
+            position++;
+            System.out.print("\rComputed differences for " + position + " methods");
         }
 
+        System.out.printf("\n WordNet synonym cache hit rate: %.1f%% (%d hits, %d misses)",
+                100 * synonymCache.getHitRate(), synonymCache.getHits(), synonymCache.getMisses());
+
         System.out.print("\n Ranking methods by difference score... ");
-        Collections.sort(differences);
+        if (topK > 0) {
+            List<RankedMethod> rankedMethods = new ArrayList<>(mostDifferent);
+            rankedMethods.sort(ranking);
+            for (RankedMethod rankedMethod : rankedMethods) {
+                differences.add(rankedMethod.differences);
+            }
+        } else {
+            Collections.sort(differences);
+        }
         System.out.println("DONE\n");
 
         return differences;
     }
 
+    /**
+     * The differences for a method along with the method's position in the list being ranked
+     */
+    private static class RankedMethod {
+        final MethodDifferences differences;
+        final int position;
+
+        RankedMethod(MethodDifferences differences, int position) {
+            this.differences = differences;
+            this.position = position;
+        }
+    }
+
     /**
      * Prompts the user for input until the pattern passed is satisfied
      *
@@ -129,11 +222,11 @@ public class Driver {
 
         while (displayIndex < rankedDifferences.size()) {
             System.out.println("\n");
-            System.out.println("\033[1m" + rankedDifferences.get(displayIndex).getMethod().getParentClass().getClassName()
-                    + "." + rankedDifferences.get(displayIndex).getMethod().getMethodName() + "()\033[0m");
+            System.out.println("\033[1m" + rankedDifferences.get(displayIndex).getClassName()
+                    + "." + rankedDifferences.get(displayIndex).getMethodName() + "()\033[0m");
             System.out.println(rankedDifferences.get(displayIndex));
             System.out.println("Method Source:");
-            System.out.println(rankedDifferences.get(displayIndex).getMethod().getElementText());
+            System.out.println(rankedDifferences.get(displayIndex).getMethodText());
 
             if (displayIndex < rankedDifferences.size() - 1) {
                 System.out.print("Display next method? (y/n): ");
@@ -144,34 +237,176 @@ public class Driver {
         }
     }
 
+    /**
+     * The command line usage, printed along with the options when an option is not valid
+     */
+    private static final String USAGE = "java Driver -m [train/files/projects/directories/methods/index] [-t threads] " +
+            "[-c cache-dir] [-k top] [-T timeout-ms] [-p max-paths] [-P max-products] [-s products/objects/bdd] " +
+            "[-l stoplist-file] path1 path2 ...";
+
     public static Options getCommandLineOptions() {
         Options options = new Options();
         options.addOption("m", "mode", true, "The mode that the tool should run in. Value can be any of the following: " +
-                "train, files, projects, directories, methods");
+                "train, files, projects, directories, methods, index");
         options.addOption("d", "documented-only", false, "Limits output to only methods that contain a Javadoc summary");
         options.addOption("i", "individual", false, "Displays methods one at a time with both the differences and the " +
                 "method's source code");
+        options.addOption("t", "threads", true, "The number of worker threads used to analyze source files in " +
+                "directories and projects (default 1)");
+        options.addOption("c", "cache", true, "Directory in which to cache analysis results between runs, so that " +
+                "unchanged source files are not analyzed again");
+        options.addOption("k", "top", true, "Only ranks and displays the given number of most poorly documented " +
+                "methods. Every method is still analyzed and held in memory before ranking, which then releases each " +
+                "method once it is scored and keeps only that number of them");
+        options.addOption("T", "timeout", true, "The wall-clock time in milliseconds allowed for analyzing each method, " +
+                "after which its success conditions are marked incomplete (default no limit)");
+        options.addOption("p", "max-paths", true, "The number of control flow paths to a statement past which path " +
+                "enumeration stops (default " + AnalysisBudget.DEFAULT_MAX_PATHS + ")");
+        options.addOption("P", "max-products", true, "The number of products in a method's conditions past which its " +
+                "success conditions are marked incomplete (default " + AnalysisBudget.DEFAULT_MAX_PRODUCTS + ")");
+        options.addOption("s", "success-engine", true, "How success conditions are found from the conditions of the " +
+                "paths that throw: products, which multiplies out their negation, objects, which multiplies it out " +
+                "without bitsets as older versions did, or bdd, which negates a binary decision diagram of them " +
+                "(default products)");
+        options.addOption("l", "stoplist", true, "A file of additional stop words, one per line, to remove from comments " +
+                "and identifiers along with the default stoplist");
         return options;
     }
 
+    /**
+     * The settings given on the command line that every parser is configured with
+     */
+    private static final class ParserOptions {
+
+        private final int threads;
+        private final AnalysisBudget analysisBudget;
+        private final SuccessConditionEngine successConditionEngine;
+        private final Stoplist stoplist;
+        private final AnalysisCache analysisCache;
+
+        /**
+         * Reads and checks the parser settings from the command line
+         *
+         * @param cmd The parsed command line
+         * @throws ParseException If an option has a value that is not allowed
+         */
+        ParserOptions(CommandLine cmd) throws ParseException {
+            threads = getIntOption(cmd, "threads", 1, 1);
+            analysisBudget = new AnalysisBudget(
+                    getLongOption(cmd, "timeout", AnalysisBudget.DEFAULT_TIMEOUT_MILLIS, 0),
+                    getIntOption(cmd, "max-paths", AnalysisBudget.DEFAULT_MAX_PATHS, 1),
+                    getIntOption(cmd, "max-products", AnalysisBudget.DEFAULT_MAX_PRODUCTS, 1));
+            try {
+                successConditionEngine = SuccessConditionEngine.fromName(
+                        cmd.getOptionValue("success-engine", SuccessConditionEngine.PRODUCTS.toString()));
+            } catch (IllegalArgumentException e) {
+                throw new ParseException("Unknown success engine: " + cmd.getOptionValue("success-engine"));
+            }
+            stoplist = cmd.hasOption("stoplist")
+                    ? Stoplist.withFile(Arrays.asList(StoplistProcessor.DEFAULT_STOPLIST), new File(cmd.getOptionValue("stoplist")))
+                    : StoplistProcessor.DEFAULT;
+            analysisCache = cmd.hasOption("cache")
+                    ? new AnalysisCache(new File(cmd.getOptionValue("cache")), analysisBudget, successConditionEngine, stoplist)
+                    : null;
+        }
+
+        /**
+         * Applies the settings to a parser
+         *
+         * @param parser The parser to configure
+         * @return The parser
+         */
+        MethodParser configure(MethodParser parser) {
+            parser.setAnalysisCache(analysisCache);
+            parser.setAnalysisBudget(analysisBudget);
+            parser.setSuccessConditionEngine(successConditionEngine);
+            parser.setStoplist(stoplist);
+            parser.setThreads(threads);
+            return parser;
+        }
+    }
+
+    /**
+     * Gets the value of a whole number option
+     *
+     * @param cmd The parsed command line
+     * @param option The long name of the option
+     * @param defaultValue The value to use if the option is not given
+     * @param minimum The smallest value allowed
+     * @return The value of the option
+     * @throws ParseException If the value is not a whole number of at least the minimum
+     */
+    private static long getLongOption(CommandLine cmd, String option, long defaultValue, long minimum)
+            throws ParseException {
+        if (!cmd.hasOption(option)) {
+            return defaultValue;
+        }
+
+        String value = cmd.getOptionValue(option);
+        try {
+            long parsed = Long.parseLong(value);
+            if (parsed >= minimum) {
+                return parsed;
+            }
+        } catch (NumberFormatException e) {
+            // Reported below
+        }
+        throw new ParseException("--" + option + " must be a whole number of at least " + minimum + ", not " + value);
+    }
+
+    /**
+     * Gets the value of a whole number option that must fit in an int
+     *
+     * @param cmd The parsed command line
+     * @param option The long name of the option
+     * @param defaultValue The value to use if the option is not given
+     * @param minimum The smallest value allowed
+     * @return The value of the option
+     * @throws ParseException If the value is not a whole number between the minimum and Integer.MAX_VALUE
+     */
+    private static int getIntOption(CommandLine cmd, String option, int defaultValue, int minimum)
+            throws ParseException {
+        long value = getLongOption(cmd, option, defaultValue, minimum);
+        if (value > Integer.MAX_VALUE) {
+            throw new ParseException("--" + option + " must be at most " + Integer.MAX_VALUE + ", not " + value);
+        }
+        return (int) value;
+    }
+
     /**
      * Runs tool on input files as specified in the command line parameters. There are two modes, either project or file,
      * set using the -projects or -files flag as shown below.
      *
      * Usage:
-     *      java Driver -m [train/files/projects/directories/methods] path1 path2 ...
+     *      java Driver -m [train/files/projects/directories/methods/index] [-t threads] [-c cache-dir] [-k top]
+     *          [-T timeout-ms] [-p max-paths] [-P max-products] [-s products/objects/bdd]
+     *          [-l stoplist-file] path1 path2 ...
+     *
+     * An option with a value that is not allowed prints the usage and exits with status 1.
      *
      * @param args Command line arguments
      */
-    public static void main(String[] args) throws ParseException {
-        CommandLineParser argParser = new GnuParser();
-        CommandLine cmd = argParser.parse(getCommandLineOptions(), args);
+    public static void main(String[] args) {
+        CommandLine cmd;
+        int topK;
+        ParserOptions parserOptions;
+        try {
+            cmd = new GnuParser().parse(getCommandLineOptions(), args);
+            topK = getIntOption(cmd, "top", 0, 0);
+            parserOptions = new ParserOptions(cmd);
+        } catch (ParseException e) {
+            System.err.println(e.getMessage());
+            new HelpFormatter().printHelp(USAGE, getCommandLineOptions());
+            System.exit(1);
+            return;
+        }
 
         if (cmd.hasOption("mode")) {
             if (cmd.getOptionValue("mode").equals("train")) {
                 if (cmd.getArgs().length == 2) {
 
                     MethodParser parser = new DirectoryMethodParser(cmd.getArgs()[0], cmd.hasOption('d'));
+                    parser.setThreads(parserOptions.threads);
 
                     // Parse this directory to get the appropriate data
                     Map<String, List<MethodFeatures>> labeledMethods = parser.createTrainingSet("primaryAction");
@@ -185,13 +420,13 @@ public class Driver {
             } else if (cmd.getOptionValue("mode").equals("files")) {
                 for(int i = 0; i < cmd.getArgs().length; i++) {
 
-                    MethodParser parser = new FileMethodParser(cmd.getArgs()[i], cmd.hasOption('d'));
+                    MethodParser parser = parserOptions.configure(new FileMethodParser(cmd.getArgs()[i], cmd.hasOption('d')));
 
                     // Parse this file to get the appropriate data
-                    List<MethodFeatures> methods = parser.parseMethods();
+                    Queue<MethodFeatures> methods = new ArrayDeque<>(parser.parseMethods());
 
                     // Get differences for each method and rank them by most different to least different
-                    List<MethodDifferences> differences = compareAndRank(methods);
+                    List<MethodDifferences> differences = drainAndRank(methods, topK);
 
                     if (cmd.hasOption("i")) {
                         displayMethodDetails(differences, new Scanner(System.in));
@@ -202,13 +437,13 @@ public class Driver {
             } else if (cmd.getOptionValue("mode").equals("projects")) {
                 for(int i = 0; i < cmd.getArgs().length; i++) {
 
-                    MethodParser parser = new AntProjectMethodParser(cmd.getArgs()[i], cmd.hasOption('d'));
+                    MethodParser parser = parserOptions.configure(new AntProjectMethodParser(cmd.getArgs()[i], cmd.hasOption('d')));
 
                     // Parse this file to get the appropriate data
-                    List<MethodFeatures> methods = parser.parseMethods();
+                    Queue<MethodFeatures> methods = new ArrayDeque<>(parser.parseMethods());
 
                     // Get differences for each method and rank them by most different to least different
-                    List<MethodDifferences> differences = compareAndRank(methods);
+                    List<MethodDifferences> differences = drainAndRank(methods, topK);
 
                     if (cmd.hasOption("i")) {
                         displayMethodDetails(differences, new Scanner(System.in));
@@ -219,13 +454,13 @@ public class Driver {
             } else if (cmd.getOptionValue("mode").equals("directories")) {
                 for(int i = 0; i < cmd.getArgs().length; i++) {
 
-                    MethodParser parser = new DirectoryMethodParser(cmd.getArgs()[i], cmd.hasOption('d'));
+                    MethodParser parser = parserOptions.configure(new DirectoryMethodParser(cmd.getArgs()[i], cmd.hasOption('d')));
 
                     // Parse this directory to get the appropriate data
-                    List<MethodFeatures> methods = parser.parseMethods();
+                    Queue<MethodFeatures> methods = new ArrayDeque<>(parser.parseMethods());
 
                     // Get differences for each method and rank them by most different to least different
-                    List<MethodDifferences> differences = compareAndRank(methods);
+                    List<MethodDifferences> differences = drainAndRank(methods, topK);
 
                     if (cmd.hasOption("i")) {
                         displayMethodDetails(differences, new Scanner(System.in));
@@ -255,19 +490,26 @@ public class Driver {
                     throw new RuntimeException(e);
                 }
 
-                MethodParser parser = new IndividualMethodParser(methodsToParse, cmd.hasOption('d'));
+                MethodParser parser = parserOptions.configure(new IndividualMethodParser(methodsToParse, cmd.hasOption('d')));
 
                 // Parse these methods to get the appropriate data
-                List<MethodFeatures> methods = parser.parseMethods();
+                Queue<MethodFeatures> methods = new ArrayDeque<>(parser.parseMethods());
 
                 // Get differences for each method and rank them by most different to least different
-                List<MethodDifferences> differences = compareAndRank(methods);
+                List<MethodDifferences> differences = drainAndRank(methods, topK);
 
                 if (cmd.hasOption("i")) {
                     displayMethodDetails(differences, new Scanner(System.in));
                 } else {
                     displayDifferences(differences, 10, new Scanner(System.in));
                 }
+            } else if (cmd.getOptionValue("mode").equals("index")) {
+                String indexPath = cmd.getArgs().length > 0 ? cmd.getArgs()[0] : WordNetProvider.SYNONYM_INDEX_FILEPATH;
+
+                // Build the synonym index from the raw dictionary so later runs can skip loading it
+                long start = System.nanoTime();
+                MappedSynonymIndex.write(WordNetProvider.getDictionary(), new File(indexPath));
+                System.out.printf("Wrote synonym index to %s in %d ms%n", indexPath, (System.nanoTime() - start) / 1000000);
             }
         } else {
             Scanner keyboard = new Scanner(System.in);
@@ -284,9 +526,9 @@ public class Driver {
                 System.out.print("Provide the path to the project to analyze: ");
                 String projectPath = keyboard.nextLine();
 
-                MethodParser parser = new AntProjectMethodParser(projectPath, cmd.hasOption('d'));
+                MethodParser parser = parserOptions.configure(new AntProjectMethodParser(projectPath, cmd.hasOption('d')));
 
-                List<MethodFeatures> methods = parser.parseMethods();
+                Queue<MethodFeatures> methods = new ArrayDeque<>(parser.parseMethods());
 
                 String analysisMode = promptUser("Would you like to analyze methods from a class or the entire project? (c/p): ", Pattern.compile("c|p"), keyboard);
 
@@ -294,15 +536,10 @@ public class Driver {
                     System.out.print("Please specify class name: ");
                     String className = keyboard.nextLine();
 
-                    List<MethodFeatures> classMethods = new ArrayList<>();
-                    for (MethodFeatures method : methods) {
-                        if (method.getParentClass().getClassName().equals(className)) {
-                            classMethods.add(method);
-                        }
-                    }
-                    
+                    methods.removeIf(method -> !method.getParentClass().getClassName().equals(className));
+
                     // Get differences for each method and rank them by most different to least different
-                    List<MethodDifferences> differences = compareAndRank(classMethods);
+                    List<MethodDifferences> differences = drainAndRank(methods, topK);
 
                     if (cmd.hasOption("i")) {
                         displayMethodDetails(differences, keyboard);
@@ -312,7 +549,7 @@ public class Driver {
                     if (dataDump) dumpData(differences, fileName);
                 } else if (analysisMode.equalsIgnoreCase("p")) {
                     // Get differences for each method and rank them by most different to least different
-                    List<MethodDifferences> differences = compareAndRank(methods);
+                    List<MethodDifferences> differences = drainAndRank(methods, topK);
 
                     if (cmd.hasOption("i")) {
                         displayMethodDetails(differences, keyboard);
@@ -329,12 +566,12 @@ public class Driver {
                 System.out.print("Provide the path to the file to analyze: ");
                 filePath = keyboard.nextLine();
 
-                MethodParser parser = new FileMethodParser(filePath, cmd.hasOption('d'));
+                MethodParser parser = parserOptions.configure(new FileMethodParser(filePath, cmd.hasOption('d')));
 
-                List<MethodFeatures> methods = parser.parseMethods();
+                Queue<MethodFeatures> methods = new ArrayDeque<>(parser.parseMethods());
 
                 // Get differences for each method and rank them by most different to least different
-                List<MethodDifferences> differences = compareAndRank(methods);
+                List<MethodDifferences> differences = drainAndRank(methods, topK);
 
                 if (cmd.hasOption("i")) {
                     displayMethodDetails(differences, keyboard);
@@ -0,0 +1,243 @@
+package edu.virginia.aid.util;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+
+/**
+ * Compact form of a {@link ControlFlowGraph}. Statements are numbered 0..n-1 in source order, and the
+ * predecessors and successors of every statement are stored as runs of statement numbers in two flat int
+ * arrays (compressed sparse rows), so the whole graph takes a handful of arrays rather than a hash map and
+ * hash set for every statement. Each statement's predecessors and successors are kept in the same order as
+ * in the ControlFlowGraph it was built from.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class IndexedControlFlowGraph {
+
+    /**
+     * Orders statements by start position, placing enclosing statements before the statements they contain
+     */
+    private static final Comparator<Statement> SOURCE_ORDER = Comparator.comparingInt(Statement::getStartPosition)
+            .thenComparing(Comparator.comparingInt(Statement::getLength).reversed());
+
+    /**
+     * The statement for each index, in source order
+     */
+    private final Statement[] statements;
+
+    /**
+     * Start position of each statement, for finding the index of a statement
+     */
+    private final int[] startPositions;
+
+    /**
+     * Offset of the first predecessor of each statement in predecessors
+     */
+    private final int[] predecessorOffsets;
+
+    /**
+     * Indexes of the predecessors of every statement, statement by statement
+     */
+    private final int[] predecessors;
+
+    /**
+     * Offset of the first successor of each statement in successors
+     */
+    private final int[] successorOffsets;
+
+    /**
+     * Indexes of the successors of every statement, statement by statement
+     */
+    private final int[] successors;
+
+    /**
+     * Index of the start statement, or -1 if there is none
+     */
+    private final int start;
+
+    /**
+     * Index of the end statement, or -1 if there is none
+     */
+    private final int end;
+
+    /**
+     * Builds the control flow graph of a method
+     *
+     * @param method The method to build the control flow graph for
+     */
+    public IndexedControlFlowGraph(MethodDeclaration method) {
+        this(new ControlFlowGraph(method));
+    }
+
+    /**
+     * Converts a control flow graph into its indexed form
+     *
+     * @param cfg The control flow graph to convert
+     */
+    public IndexedControlFlowGraph(ControlFlowGraph cfg) {
+        Set<Statement> allStatements = new LinkedHashSet<>();
+        allStatements.addAll(cfg.getSuccessors().keySet());
+        allStatements.addAll(cfg.getPredecessors().keySet());
+        if (cfg.getStart() != null) allStatements.add(cfg.getStart());
+        if (cfg.getEnd() != null) allStatements.add(cfg.getEnd());
+
+        statements = allStatements.toArray(new Statement[allStatements.size()]);
+        Arrays.sort(statements, SOURCE_ORDER);
+
+        startPositions = new int[statements.length];
+        for (int i = 0; i < statements.length; i++) {
+            startPositions[i] = statements[i].getStartPosition();
+        }
+
+        predecessorOffsets = new int[statements.length + 1];
+        predecessors = buildEdges(cfg.getPredecessors(), predecessorOffsets);
+        successorOffsets = new int[statements.length + 1];
+        successors = buildEdges(cfg.getSuccessors(), successorOffsets);
+
+        start = getIndex(cfg.getStart());
+        end = getIndex(cfg.getEnd());
+    }
+
+    /**
+     * Flattens one direction of the graph's edges into a single array
+     *
+     * @param edges Map of each statement to the statements it has an edge to
+     * @param offsets Filled in with the offset of each statement's first edge in the returned array
+     * @return The index of the other end of every edge, statement by statement
+     */
+    private int[] buildEdges(Map<Statement, Set<Statement>> edges, int[] offsets) {
+        int edgeCount = 0;
+        for (Set<Statement> statementEdges : edges.values()) {
+            edgeCount += statementEdges.size();
+        }
+
+        int[] indexes = new int[edgeCount];
+        int offset = 0;
+        for (int i = 0; i < statements.length; i++) {
+            offsets[i] = offset;
+            Set<Statement> statementEdges = edges.get(statements[i]);
+            if (statementEdges != null) {
+                for (Statement other : statementEdges) {
+                    indexes[offset++] = getIndex(other);
+                }
+            }
+        }
+        offsets[statements.length] = offset;
+
+        return indexes;
+    }
+
+    /**
+     * Gets the number of statements in the graph
+     *
+     * @return The number of statements
+     */
+    public int size() {
+        return statements.length;
+    }
+
+    /**
+     * Gets the statement with the given index
+     *
+     * @param index The index of the statement
+     * @return The statement
+     */
+    public Statement getStatement(int index) {
+        return statements[index];
+    }
+
+    /**
+     * Finds the index of a statement with a binary search on its start position
+     *
+     * @param statement The statement to look for
+     * @return The index of the statement, or -1 if it is null or not part of the graph
+     */
+    public int getIndex(Statement statement) {
+        if (statement == null) {
+            return -1;
+        }
+
+        int position = Arrays.binarySearch(startPositions, statement.getStartPosition());
+        if (position < 0) {
+            return -1;
+        }
+
+        // Nested statements can start at the same position, so check each statement that does
+        while (position > 0 && startPositions[position - 1] == startPositions[position]) {
+            position--;
+        }
+        for (; position < statements.length && startPositions[position] == statement.getStartPosition(); position++) {
+            if (statements[position] == statement) {
+                return position;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Gets the index of the start statement of the graph
+     *
+     * @return The index of the start statement, or -1 if there is none
+     */
+    public int getStart() {
+        return start;
+    }
+
+    /**
+     * Gets the index of the end statement of the graph, which is always the method body
+     *
+     * @return The index of the end statement, or -1 if there is none
+     */
+    public int getEnd() {
+        return end;
+    }
+
+    /**
+     * Gets the number of predecessors of a statement
+     *
+     * @param index The index of the statement
+     * @return The number of predecessors
+     */
+    public int getPredecessorCount(int index) {
+        return predecessorOffsets[index + 1] - predecessorOffsets[index];
+    }
+
+    /**
+     * Gets one of the predecessors of a statement
+     *
+     * @param index The index of the statement
+     * @param i Which of the statement's predecessors to get, from 0 to the number of predecessors
+     * @return The index of the predecessor
+     */
+    public int getPredecessor(int index, int i) {
+        return predecessors[predecessorOffsets[index] + i];
+    }
+
+    /**
+     * Gets the number of successors of a statement
+     *
+     * @param index The index of the statement
+     * @return The number of successors
+     */
+    public int getSuccessorCount(int index) {
+        return successorOffsets[index + 1] - successorOffsets[index];
+    }
+
+    /**
+     * Gets one of the successors of a statement
+     *
+     * @param index The index of the statement
+     * @param i Which of the statement's successors to get, from 0 to the number of successors
+     * @return The index of the successor
+     */
+    public int getSuccessor(int index, int i) {
+        return successors[successorOffsets[index] + i];
+    }
+}
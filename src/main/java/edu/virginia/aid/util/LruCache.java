@@ -0,0 +1,148 @@
+package edu.virginia.aid.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Bounded, thread-safe memoization table with least-recently-used eviction. Entries are spread over
+ * several independently locked segments so that concurrent lookups rarely contend, and each segment
+ * evicts its own least recently used entry once it is full. Hits and misses are counted so callers
+ * can report how effective the cache was.
+ *
+ * @param <K> The type of the keys
+ * @param <V> The type of the cached values
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class LruCache<K, V> {
+
+    private static final int SEGMENTS = 16;
+
+    /**
+     * The independently locked portions of the cache
+     */
+    private final Segment<K, V>[] segments;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Creates a cache holding at most (roughly) the given number of entries
+     *
+     * @param capacity The maximum number of entries to keep
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public LruCache(int capacity) {
+        int segmentCount = Math.max(1, Math.min(SEGMENTS, capacity));
+        int segmentCapacity = Math.max(1, capacity / segmentCount);
+
+        segments = new Segment[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = new Segment<>(segmentCapacity);
+        }
+    }
+
+    /**
+     * Gets the value cached for the key, computing and caching it with the loader if it is not present.
+     * The loader runs outside of any lock, so two threads missing on the same key may both compute it.
+     *
+     * @param key The key to look up
+     * @param loader Function computing the value for a key that is not cached
+     * @return The cached or newly computed value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        Segment<K, V> segment = segmentFor(key);
+
+        V value;
+        synchronized (segment) {
+            value = segment.get(key);
+        }
+
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+
+        misses.increment();
+        value = loader.apply(key);
+        if (value != null) {
+            synchronized (segment) {
+                segment.put(key, value);
+            }
+        }
+
+        return value;
+    }
+
+    /**
+     * Gets the number of lookups that were answered from the cache
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Gets the number of lookups that had to compute their value
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Gets the fraction of lookups that were answered from the cache
+     *
+     * @return The hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        long hitCount = getHits();
+        long total = hitCount + getMisses();
+        return total == 0 ? 0 : (double) hitCount / total;
+    }
+
+    /**
+     * Gets the number of entries currently cached
+     *
+     * @return The number of cached entries
+     */
+    public int size() {
+        int size = 0;
+        for (Segment<K, V> segment : segments) {
+            synchronized (segment) {
+                size += segment.size();
+            }
+        }
+
+        return size;
+    }
+
+    private Segment<K, V> segmentFor(K key) {
+        int hash = key.hashCode();
+        hash ^= (hash >>> 16);
+        return segments[(hash & 0x7fffffff) % segments.length];
+    }
+
+    /**
+     * Access-ordered map that drops its least recently used entry when it grows past its capacity
+     */
+    @SuppressWarnings("serial")
+    private static class Segment<K, V> extends LinkedHashMap<K, V> {
+
+        private final int capacity;
+
+        Segment(int capacity) {
+            super(16, 0.75f, true);
+            this.capacity = capacity;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+            return size() > capacity;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package edu.virginia.aid.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.POS;
+
+/**
+ * Synonym index read from a compact, memory-mapped file built ahead of time from WordNet. The file holds
+ * a sorted table of every lemma along with, for each lemma, the table positions of its synonyms, so a
+ * lookup is a binary search over the table followed by a read of the adjacent ids. Nothing is parsed
+ * or copied onto the heap when the index is opened.
+ *
+ * File layout (all ints big-endian):
+ * <pre>
+ *     int     magic number
+ *     int     format version
+ *     int     n, the number of lemmas
+ *     int     m, the total number of synonym ids
+ *     int[n+1] byte offset of each lemma in the string data
+ *     int[n+1] offset of each lemma's first synonym id
+ *     int[m]   synonym ids
+ *     byte[]   UTF-8 string data for the lemmas, in sorted order
+ * </pre>
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class MappedSynonymIndex implements SynonymIndex {
+
+    private static final int MAGIC = 0x41494453;
+    private static final int VERSION = 1;
+    private static final int HEADER_INTS = 4;
+
+    /**
+     * Whitespace is stored as underscores in WordNet lemmas
+     */
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    /**
+     * The number of lemmas in the table
+     */
+    private final int lemmaCount;
+
+    /**
+     * Byte offset of each lemma in the string data
+     */
+    private final IntBuffer lemmaOffsets;
+
+    /**
+     * Offset of each lemma's first synonym id in the adjacency list
+     */
+    private final IntBuffer synonymOffsets;
+
+    /**
+     * Table positions of the synonyms of every lemma, lemma by lemma
+     */
+    private final IntBuffer synonymIds;
+
+    /**
+     * UTF-8 encoded lemmas
+     */
+    private final ByteBuffer lemmaData;
+
+    /**
+     * Creates an index over the contents of an index file
+     *
+     * @param buffer The contents of the index file
+     */
+    private MappedSynonymIndex(ByteBuffer buffer) {
+        if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new RuntimeException("Not a synonym index file, or the index was built by a different version");
+        }
+
+        lemmaCount = buffer.getInt(8);
+        int synonymCount = buffer.getInt(12);
+
+        int tableInts = 2 * (lemmaCount + 1) + synonymCount;
+        IntBuffer table = slice(buffer, 4 * HEADER_INTS, 4 * tableInts).asIntBuffer();
+        lemmaOffsets = slice(table, 0, lemmaCount + 1);
+        synonymOffsets = slice(table, lemmaCount + 1, lemmaCount + 1);
+        synonymIds = slice(table, 2 * (lemmaCount + 1), synonymCount);
+
+        int dataStart = 4 * (HEADER_INTS + tableInts);
+        lemmaData = slice(buffer, dataStart, buffer.capacity() - dataStart);
+    }
+
+    /**
+     * Memory-maps an index file previously written by {@link #write(IDictionary, File)}
+     *
+     * @param file The index file
+     * @return The synonym index stored in the file
+     */
+    public static MappedSynonymIndex open(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            return new MappedSynonymIndex(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Gets the set of synonyms for a term, including the term itself
+     *
+     * @param term The term to find synonyms for
+     * @return Unmodifiable set of the term and all of its synonyms
+     */
+    @Override
+    public Set<String> getSynonyms(String term) {
+        Set<String> termSynonyms = new HashSet<>();
+        termSynonyms.add(term);
+
+        int lemma = find(normalize(term));
+        if (lemma >= 0) {
+            for (int i = synonymOffsets.get(lemma); i < synonymOffsets.get(lemma + 1); i++) {
+                termSynonyms.add(getLemma(synonymIds.get(i)));
+            }
+        }
+
+        return Collections.unmodifiableSet(termSynonyms);
+    }
+
+    /**
+     * Gets the number of lemmas in the index
+     *
+     * @return The number of lemmas
+     */
+    public int size() {
+        return lemmaCount;
+    }
+
+    /**
+     * Finds the table position of a lemma with a binary search
+     *
+     * @param lemma The normalized lemma to look for
+     * @return The position of the lemma, or -1 if it is not in the table
+     */
+    private int find(String lemma) {
+        int low = 0;
+        int high = lemmaCount - 1;
+
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int comparison = getLemma(mid).compareTo(lemma);
+            if (comparison < 0) {
+                low = mid + 1;
+            } else if (comparison > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Decodes the lemma at a table position. Only absolute reads are used, so this is safe to call
+     * from any number of threads at once.
+     *
+     * @param id The table position
+     * @return The lemma stored there
+     */
+    private String getLemma(int id) {
+        int start = lemmaOffsets.get(id);
+        byte[] bytes = new byte[lemmaOffsets.get(id + 1) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = lemmaData.get(start + i);
+        }
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Normalizes a term the same way JWI does before looking up an index word
+     *
+     * @param term The term to normalize
+     * @return The term as it would appear as a WordNet lemma
+     */
+    private static String normalize(String term) {
+        return WHITESPACE.matcher(term.toLowerCase().trim()).replaceAll("_");
+    }
+
+    /**
+     * Builds the synonym index for every index word in a WordNet dictionary and writes it to a file
+     *
+     * @param wordNetDictionary An open WordNet dictionary
+     * @param file The file to write the index to
+     */
+    public static void write(IDictionary wordNetDictionary, File file) {
+        WordNetSynonymIndex wordNet = new WordNetSynonymIndex(wordNetDictionary);
+
+        // Gather the synonyms of each lemma across all parts of speech
+        Map<String, Set<String>> synonyms = new TreeMap<>();
+        for (POS pos : WordNetSynonymIndex.PARTS_OF_SPEECH) {
+            Iterator<IIndexWord> indexWords = wordNetDictionary.getIndexWordIterator(pos);
+            while (indexWords.hasNext()) {
+                IIndexWord idxWord = indexWords.next();
+                synonyms.computeIfAbsent(idxWord.getLemma(), lemma -> new TreeSet<>()).addAll(wordNet.getSynonyms(idxWord));
+            }
+        }
+
+        // Every lemma, whether or not it is an index word itself, gets a place in the sorted table
+        Set<String> allLemmas = new TreeSet<>(synonyms.keySet());
+        for (Set<String> lemmaSynonyms : synonyms.values()) {
+            allLemmas.addAll(lemmaSynonyms);
+        }
+
+        List<String> lemmas = new ArrayList<>(allLemmas);
+        Map<String, Integer> ids = new HashMap<>();
+        for (int i = 0; i < lemmas.size(); i++) {
+            ids.put(lemmas.get(i), i);
+        }
+
+        List<byte[]> encodedLemmas = new ArrayList<>(lemmas.size());
+        int synonymCount = 0;
+        for (String lemma : lemmas) {
+            encodedLemmas.add(lemma.getBytes(StandardCharsets.UTF_8));
+            synonymCount += synonyms.getOrDefault(lemma, Collections.emptySet()).size();
+        }
+
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(lemmas.size());
+            out.writeInt(synonymCount);
+
+            int offset = 0;
+            out.writeInt(offset);
+            for (byte[] encodedLemma : encodedLemmas) {
+                offset += encodedLemma.length;
+                out.writeInt(offset);
+            }
+
+            offset = 0;
+            out.writeInt(offset);
+            for (String lemma : lemmas) {
+                offset += synonyms.getOrDefault(lemma, Collections.emptySet()).size();
+                out.writeInt(offset);
+            }
+
+            for (String lemma : lemmas) {
+                for (String synonym : synonyms.getOrDefault(lemma, Collections.emptySet())) {
+                    out.writeInt(ids.get(synonym));
+                }
+            }
+
+            for (byte[] encodedLemma : encodedLemmas) {
+                out.write(encodedLemma);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static ByteBuffer slice(ByteBuffer buffer, int start, int length) {
+        ByteBuffer duplicate = buffer.duplicate();
+        duplicate.position(start);
+        duplicate.limit(start + length);
+        return duplicate.slice();
+    }
+
+    private static IntBuffer slice(IntBuffer buffer, int start, int length) {
+        IntBuffer duplicate = buffer.duplicate();
+        duplicate.position(start);
+        duplicate.limit(start + length);
+        return duplicate.slice();
+    }
+}
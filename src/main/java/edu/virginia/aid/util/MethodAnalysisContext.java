@@ -0,0 +1,184 @@
+package edu.virginia.aid.util;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.eclipse.jdt.core.dom.MethodDeclaration;
+import org.eclipse.jdt.core.dom.Statement;
+import org.eclipse.jdt.core.dom.ThrowStatement;
+
+import edu.virginia.aid.data.IdentifierName;
+import edu.virginia.aid.data.MethodFeatures;
+import edu.virginia.aid.symex.Path;
+import edu.virginia.aid.symex.PathConditionAnalysis;
+import edu.virginia.aid.symex.SumOfProducts;
+import edu.virginia.aid.visitors.VariableUsageVisitor;
+
+/**
+ * Analysis results for a single method that are shared by every FeatureDetector run on it. Each result is
+ * computed the first time a detector asks for it and reused afterwards, so the control flow graph, the
+ * paths and path conditions through it and the variables used by each statement are only worked out once
+ * per method. Everything the context computes counts against a single {@link AnalysisBudget} for the
+ * method. A context belongs to one method and is only used by the thread processing that method.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class MethodAnalysisContext {
+
+    /**
+     * The method being analyzed
+     */
+    private final MethodDeclaration method;
+
+    /**
+     * The features of the method being analyzed
+     */
+    private final MethodFeatures features;
+
+    /**
+     * The budget for analyzing the method, whose clock started when the context was created
+     */
+    private final AnalysisBudget budget;
+
+    /**
+     * The control flow graph of the method, or null if it has not been built yet
+     */
+    private IndexedControlFlowGraph cfg;
+
+    /**
+     * The throw statements in the method, or null if they have not been found yet
+     */
+    private Set<ThrowStatement> throwStatements;
+
+    /**
+     * Paths found so far from the beginning of the method to a statement
+     */
+    private final Map<Statement, Collection<Path>> pathsToStatement = new HashMap<>();
+
+    /**
+     * Conditions found so far for reaching a statement
+     */
+    private final Map<Statement, SumOfProducts> pathConditions = new HashMap<>();
+
+    /**
+     * Identifier uses found so far in each statement
+     */
+    private final Map<Statement, List<IdentifierName>> identifierUses = new HashMap<>();
+
+    /**
+     * Creates an empty context for a method
+     *
+     * @param method The method being analyzed
+     * @param features The features of the method being analyzed
+     */
+    public MethodAnalysisContext(MethodDeclaration method, MethodFeatures features) {
+        this(method, features, new AnalysisBudget());
+    }
+
+    /**
+     * Creates an empty context for a method that is analyzed within the given limits
+     *
+     * @param method The method being analyzed
+     * @param features The features of the method being analyzed
+     * @param limits The limits on analyzing the method, copied so that the method's time starts now
+     */
+    public MethodAnalysisContext(MethodDeclaration method, MethodFeatures features, AnalysisBudget limits) {
+        this.method = method;
+        this.features = features;
+        this.budget = new AnalysisBudget(limits);
+    }
+
+    /**
+     * Gets the method being analyzed
+     *
+     * @return The method declaration
+     */
+    public MethodDeclaration getMethod() {
+        return method;
+    }
+
+    /**
+     * Gets the budget for analyzing the method, which records the first limit the analysis reached
+     *
+     * @return The method's budget
+     */
+    public AnalysisBudget getBudget() {
+        return budget;
+    }
+
+    /**
+     * Gets the control flow graph of the method, building it if this is the first request
+     *
+     * @return The control flow graph of the method
+     */
+    public IndexedControlFlowGraph getControlFlowGraph() {
+        if (cfg == null) {
+            cfg = new IndexedControlFlowGraph(method);
+        }
+
+        return cfg;
+    }
+
+    /**
+     * Gets the throw statements in the method's control flow graph
+     *
+     * @return The throw statements, in source order
+     */
+    public Set<ThrowStatement> getThrowStatements() {
+        if (throwStatements == null) {
+            IndexedControlFlowGraph cfg = getControlFlowGraph();
+            throwStatements = new LinkedHashSet<>();
+            for (int i = 0; i < cfg.size(); i++) {
+                if (cfg.getStatement(i) instanceof ThrowStatement && cfg.getSuccessorCount(i) > 0) {
+                    throwStatements.add((ThrowStatement) cfg.getStatement(i));
+                }
+            }
+        }
+
+        return throwStatements;
+    }
+
+    /**
+     * Gets the paths from the beginning of the method to the given statement, as many as the budget allows. See
+     * {@link Path#getPathsToStatement(IndexedControlFlowGraph, Statement, AnalysisBudget)}.
+     *
+     * @param statement The statement to find paths to
+     * @return The paths found that reach the given statement
+     */
+    public Collection<Path> getPathsToStatement(Statement statement) {
+        return pathsToStatement.computeIfAbsent(statement, s -> Path.getPathsToStatement(getControlFlowGraph(), s, budget));
+    }
+
+    /**
+     * Gets the conditions under which execution reaches the given statement. See
+     * {@link PathConditionAnalysis#getConditions(MethodFeatures, IndexedControlFlowGraph, Statement, AnalysisBudget)}.
+     *
+     * @param statement The statement to find the conditions for
+     * @return The conditions for reaching the statement, or null if the budget ran out
+     */
+    public SumOfProducts getPathConditions(Statement statement) {
+        if (!pathConditions.containsKey(statement)) {
+            pathConditions.put(statement, PathConditionAnalysis.getConditions(features, getControlFlowGraph(), statement, budget));
+        }
+
+        return pathConditions.get(statement);
+    }
+
+    /**
+     * Gets the identifiers read or written within a statement, as found by a {@link VariableUsageVisitor}
+     *
+     * @param statement The statement to scan
+     * @return The identifier uses in the statement
+     */
+    public List<IdentifierName> getIdentifierUses(Statement statement) {
+        return identifierUses.computeIfAbsent(statement, s -> {
+            VariableUsageVisitor visitor = new VariableUsageVisitor(features, false /* writing */);
+            s.accept(visitor);
+            return visitor.getIdentifierUses();
+        });
+    }
+}
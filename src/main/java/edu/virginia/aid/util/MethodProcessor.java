@@ -33,6 +33,11 @@ public class MethodProcessor {
     private ClassInformation parentClass;
     private String filepath;
 
+    /**
+     * The limits on analyzing the method
+     */
+    private AnalysisBudget analysisBudget = new AnalysisBudget();
+
     /**
      * Creates a new MethodProcessor with the method to process
      *
@@ -53,6 +58,15 @@ public class MethodProcessor {
         detectors.add(detector);
     }
 
+    /**
+     * Sets the limits on analyzing the method
+     *
+     * @param analysisBudget The limits the method's analysis has to stay within
+     */
+    public void setAnalysisBudget(AnalysisBudget analysisBudget) {
+        this.analysisBudget = analysisBudget;
+    }
+
     /**
      * Runs each FeatureDetector that has been added on the method
      *
@@ -62,13 +76,15 @@ public class MethodProcessor {
         MethodFeatures features = new MethodFeatures(method.getName().getIdentifier(),
                                                     this.parentClass,
                                                     this.filepath,
-                                                    method.getReturnType2(),
+                                                    method.getReturnType2() != null ? method.getReturnType2().toString() : null,
                                                     method.getStartPosition(),
                                                     method.getStartPosition() + method.getLength(),
                                                     parentClass.getSourceContext());
+        MethodAnalysisContext context = new MethodAnalysisContext(method, features, analysisBudget);
         for (FeatureDetector detector : detectors) {
-            detector.process(method, features);
+            detector.process(context, features);
         }
+        features.setExceededBudgetLimits(context.getBudget().getExceededLimits());
 
         return features;
     }
@@ -0,0 +1,131 @@
+package edu.virginia.aid.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Immutable set of stop words that can be checked against a run of characters without creating a String.
+ * Words are stored in an open-addressing hash table that is built once, so a lookup hashes the characters
+ * and compares them against at most a few entries.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class Stoplist {
+
+    /**
+     * The words in the stoplist, in the order they were given
+     */
+    private final String[] words;
+
+    /**
+     * Open-addressing table of the characters of each word, with null marking an empty slot
+     */
+    private final char[][] table;
+
+    /**
+     * Creates a stoplist of the given words. Words are matched exactly, so they should be lower case.
+     *
+     * @param words The stop words
+     */
+    public Stoplist(Collection<String> words) {
+        Set<String> distinctWords = new LinkedHashSet<>(words);
+        this.words = distinctWords.toArray(new String[0]);
+
+        int capacity = Integer.highestOneBit(Math.max(4, 4 * this.words.length) - 1) << 1;
+        this.table = new char[capacity][];
+        for (String word : this.words) {
+            char[] chars = word.toCharArray();
+            int slot = hash(chars, 0, chars.length) & (capacity - 1);
+            while (table[slot] != null) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            table[slot] = chars;
+        }
+    }
+
+    /**
+     * Creates a stoplist of the given words and the words listed in a file, one per line. Blank lines and
+     * lines starting with '#' are ignored, and words are converted to lower case.
+     *
+     * @param words The stop words to start with
+     * @param file The file listing additional stop words
+     * @return The combined stoplist
+     */
+    public static Stoplist withFile(Collection<String> words, File file) {
+        Set<String> allWords = new LinkedHashSet<>(words);
+        try {
+            for (String line : Files.readAllLines(file.toPath(), StandardCharsets.UTF_8)) {
+                String word = line.trim().toLowerCase();
+                if (!word.isEmpty() && !word.startsWith("#")) {
+                    allWords.add(word);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Could not read stoplist " + file, e);
+        }
+
+        return new Stoplist(allWords);
+    }
+
+    /**
+     * Checks whether a run of characters is a stop word
+     *
+     * @param chars The array holding the characters
+     * @param start The index of the first character
+     * @param length The number of characters
+     * @return Whether the characters spell a word in the stoplist
+     */
+    public boolean contains(char[] chars, int start, int length) {
+        int mask = table.length - 1;
+        for (int slot = hash(chars, start, length) & mask; table[slot] != null; slot = (slot + 1) & mask) {
+            char[] word = table[slot];
+            if (word.length == length && regionMatches(word, chars, start)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean contains(String word) {
+        return contains(word.toCharArray(), 0, word.length());
+    }
+
+    /**
+     * Gets the number of words in the stoplist
+     *
+     * @return The number of distinct stop words
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Lists the words of the stoplist, for cache keys
+     */
+    @Override
+    public String toString() {
+        return String.join(" ", words);
+    }
+
+    private static boolean regionMatches(char[] word, char[] chars, int start) {
+        for (int i = 0; i < word.length; i++) {
+            if (word[i] != chars[start + i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int hash(char[] chars, int start, int length) {
+        int hash = 0;
+        for (int i = start; i < start + length; i++) {
+            hash = 31 * hash + chars[i];
+        }
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -6,19 +6,62 @@ package edu.virginia.aid.util;
  * @author Matt Pearson-Beck & Jeff Principe
  */
 public class StringHelper {
-	
+
+    /**
+     * Identifies camel case splitting in the token cache
+     */
+    private static final Object SPLIT_STEP = new Object();
+
     /**
-     * Helper method to replace camel casing with spaces between words. Regex found from NPE on StackOverflow.
-     * 
+     * Helper method to replace camel casing with spaces between words. A word starts at an uppercase letter
+     * that follows a character that is not uppercase, and at the last uppercase letter of a run of them when
+     * it is followed by a lowercase letter ("parseXMLFile" becomes "parse XML File"). The same names come up in
+     * every method that uses them, so each is split once and kept in the shared {@link TokenCache}.
+     *
      * @param s String in camelCase form
      * @return String with spaces instead of camelCase
      */
     public static String splitCamelCase(String s) {
-    	String[] wordSplit = s.split("(?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])");
-    	String newWord = "";
-    	for (String w : wordSplit) {
-    		newWord += w + " ";
+        return TokenCache.SHARED.get(SPLIT_STEP, s, StringHelper::splitCamelCaseUncached);
+    }
+
+    /**
+     * Splits a camel case string in a single pass over its characters, without consulting the cache. Gives the
+     * same result as splitting on the regular expression {@code (?<!(^|[A-Z]))(?=[A-Z])|(?<!^)(?=[A-Z][a-z])}
+     * and joining the pieces with spaces.
+     *
+     * @param s String in camelCase form
+     * @return String with spaces instead of camelCase
+     */
+    public static String splitCamelCaseUncached(String s) {
+        int length = s.length();
+        char[] split = null;
+        int splitLength = 0;
+
+        for (int i = 0; i < length; i++) {
+            char c = s.charAt(i);
+            if (i > 0 && isUpper(c) && (!isUpper(s.charAt(i - 1)) || (i + 1 < length && isLower(s.charAt(i + 1))))) {
+                if (split == null) {
+                    // Each character can start at most one new word
+                    split = new char[2 * length];
+                    s.getChars(0, i, split, 0);
+                    splitLength = i;
+                }
+                split[splitLength++] = ' ';
+            }
+            if (split != null) {
+                split[splitLength++] = c;
+            }
         }
-    	return newWord.trim();
+
+        return split == null ? s.trim() : new String(split, 0, splitLength).trim();
+    }
+
+    private static boolean isUpper(char c) {
+        return c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isLower(char c) {
+        return c >= 'a' && c <= 'z';
     }
 }
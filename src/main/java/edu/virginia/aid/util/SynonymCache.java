@@ -0,0 +1,85 @@
+package edu.virginia.aid.util;
+
+import java.util.Set;
+
+/**
+ * Memoizes synonym lookups. The same identifier terms come up over and over again across the methods
+ * of a project, so each term's synonym set is only looked up in the index the first time it is
+ * requested.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class SynonymCache {
+
+    /**
+     * The default number of terms to keep synonym sets for
+     */
+    public static final int DEFAULT_CAPACITY = 20000;
+
+    /**
+     * The index used to look up synonyms that are not cached
+     */
+    private final SynonymIndex synonymIndex;
+
+    /**
+     * Map of terms to their synonym sets
+     */
+    private final LruCache<String, Set<String>> synonyms;
+
+    /**
+     * Creates a cache with the default capacity backed by the given index
+     *
+     * @param synonymIndex The index to look up synonyms in
+     */
+    public SynonymCache(SynonymIndex synonymIndex) {
+        this(synonymIndex, DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates a cache backed by the given index
+     *
+     * @param synonymIndex The index to look up synonyms in
+     * @param capacity The maximum number of terms to keep synonym sets for
+     */
+    public SynonymCache(SynonymIndex synonymIndex, int capacity) {
+        this.synonymIndex = synonymIndex;
+        this.synonyms = new LruCache<>(capacity);
+    }
+
+    /**
+     * Gets the set of synonyms for a term, including the term itself
+     *
+     * @param term The term to find synonyms for
+     * @return Unmodifiable set of the term and all of its synonyms
+     */
+    public Set<String> getSynonyms(String term) {
+        return synonyms.get(term, synonymIndex::getSynonyms);
+    }
+
+    /**
+     * Gets the fraction of synonym lookups answered without going to the index
+     *
+     * @return The cache hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        return synonyms.getHitRate();
+    }
+
+    /**
+     * Gets the number of synonym lookups answered without going to the index
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return synonyms.getHits();
+    }
+
+    /**
+     * Gets the number of synonym lookups that went to the index
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return synonyms.getMisses();
+    }
+}
@@ -0,0 +1,21 @@
+package edu.virginia.aid.util;
+
+import java.util.Set;
+
+/**
+ * A source of synonyms for the terms found in method source code, used to decide whether a concept is
+ * discussed in a method's comments even when different wording is used.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public interface SynonymIndex {
+
+    /**
+     * Gets the set of synonyms for a term, including the term itself. Implementations must be safe to
+     * call from multiple threads.
+     *
+     * @param term The term to find synonyms for
+     * @return Unmodifiable set of the term and all of its synonyms
+     */
+    Set<String> getSynonyms(String term);
+}
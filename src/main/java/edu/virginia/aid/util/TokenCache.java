@@ -0,0 +1,108 @@
+package edu.virginia.aid.util;
+
+import java.util.function.UnaryOperator;
+
+/**
+ * Memoizes the normalization of identifier names. The same names (index, size, elementData, count) come up in
+ * every method of a project, and each one is split on camel case, stemmed and run through the stoplist in turn,
+ * so each step remembers its result for every name it has seen. One table is shared by all of the steps, with
+ * each entry keyed by the step and the name it was given.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class TokenCache {
+
+    /**
+     * The default number of normalized names to keep across all steps
+     */
+    public static final int DEFAULT_CAPACITY = 100000;
+
+    /**
+     * The cache shared by camel case splitting, stemming and stoplist processing
+     */
+    public static final TokenCache SHARED = new TokenCache(DEFAULT_CAPACITY);
+
+    /**
+     * Map of each step and input to the step's output
+     */
+    private final LruCache<TokenKey, String> tokens;
+
+    /**
+     * Creates a cache holding at most (roughly) the given number of normalized names
+     *
+     * @param capacity The maximum number of names to keep across all steps
+     */
+    public TokenCache(int capacity) {
+        this.tokens = new LruCache<>(capacity);
+    }
+
+    /**
+     * Gets the result of a normalization step for a name, running the step only the first time it sees the name
+     *
+     * @param step Object identifying the step, compared with equals, such as the Stoplist used by a stoplist
+     *             step. Each step should keep using the same one so that its results are found again.
+     * @param token The name to normalize
+     * @param normalizer The step itself, which must always give the same result for the same name
+     * @return The normalized name
+     */
+    public String get(Object step, String token, UnaryOperator<String> normalizer) {
+        return tokens.get(new TokenKey(step, token), key -> normalizer.apply(key.token));
+    }
+
+    /**
+     * Gets the fraction of lookups answered without running a step
+     *
+     * @return The cache hit rate, between 0 and 1
+     */
+    public double getHitRate() {
+        return tokens.getHitRate();
+    }
+
+    /**
+     * Gets the number of lookups answered without running a step
+     *
+     * @return The number of cache hits
+     */
+    public long getHits() {
+        return tokens.getHits();
+    }
+
+    /**
+     * Gets the number of lookups that had to run a step
+     *
+     * @return The number of cache misses
+     */
+    public long getMisses() {
+        return tokens.getMisses();
+    }
+
+    /**
+     * A name along with the step it is given to
+     */
+    private static final class TokenKey {
+
+        private final Object step;
+        private final String token;
+        private final int hash;
+
+        TokenKey(Object step, String token) {
+            this.step = step;
+            this.token = token;
+            this.hash = 31 * step.hashCode() + token.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TokenKey)) {
+                return false;
+            }
+            TokenKey other = (TokenKey) o;
+            return other.hash == hash && other.token.equals(token) && other.step.equals(step);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
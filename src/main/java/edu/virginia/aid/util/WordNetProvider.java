@@ -0,0 +1,114 @@
+package edu.virginia.aid.util;
+
+import java.io.File;
+import java.io.IOException;
+
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.RAMDictionary;
+import edu.mit.jwi.data.ILoadPolicy;
+
+/**
+ * Process-wide access to WordNet. If a precompiled synonym index has been built (see
+ * {@link MappedSynonymIndex}) it is memory-mapped and used for synonym lookups; otherwise the raw
+ * dictionary is read fully into memory the first time it is requested. Either way the result is shared,
+ * along with its synonym cache, by every comparison for the rest of the run. Once loaded, both are only
+ * ever read, so lookups are safe from any thread.
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class WordNetProvider {
+
+    /**
+     * Location of the WordNet dictionary files, relative to the working directory
+     */
+    public static final String WORDNET_FILEPATH = "wordnet/dict";
+
+    /**
+     * Location of the precompiled synonym index, relative to the working directory
+     */
+    public static final String SYNONYM_INDEX_FILEPATH = "wordnet/synonyms.idx";
+
+    private WordNetProvider() {}
+
+    /**
+     * Gets the shared in-memory WordNet dictionary, loading it if this is the first request
+     *
+     * @return The open WordNet dictionary
+     */
+    public static IDictionary getDictionary() {
+        return Holder.DICTIONARY;
+    }
+
+    /**
+     * Gets the shared synonym index, preferring the precompiled index file when it exists
+     *
+     * @return The synonym index
+     */
+    public static SynonymIndex getSynonymIndex() {
+        return IndexHolder.SYNONYM_INDEX;
+    }
+
+    /**
+     * Gets the synonym cache shared by every comparison in this run
+     *
+     * @return The shared synonym cache
+     */
+    public static SynonymCache getSynonymCache() {
+        return IndexHolder.SYNONYM_CACHE;
+    }
+
+    /**
+     * Loads the WordNet dictionary into memory, reporting how long it took
+     *
+     * @return The open, fully loaded dictionary
+     */
+    private static IDictionary load() {
+        long start = System.nanoTime();
+
+        IDictionary dictionary = new RAMDictionary(new File(WORDNET_FILEPATH), ILoadPolicy.IMMEDIATE_LOAD);
+        try {
+            dictionary.open();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+
+        System.out.printf("Loaded WordNet into memory in %d ms%n", (System.nanoTime() - start) / 1000000);
+
+        return dictionary;
+    }
+
+    /**
+     * Memory-maps the precompiled synonym index if there is one, and otherwise falls back on looking
+     * synonyms up in the in-memory dictionary
+     *
+     * @return The synonym index
+     */
+    private static SynonymIndex loadSynonymIndex() {
+        File indexFile = new File(SYNONYM_INDEX_FILEPATH);
+        if (!indexFile.isFile()) {
+            return new WordNetSynonymIndex(getDictionary());
+        }
+
+        long start = System.nanoTime();
+        MappedSynonymIndex index = MappedSynonymIndex.open(indexFile);
+        System.out.printf("Loaded WordNet synonym index (%d lemmas) in %d ms%n", index.size(),
+                (System.nanoTime() - start) / 1000000);
+
+        return index;
+    }
+
+    /**
+     * Initialized by the JVM on first access, which makes loading lazy and happen exactly once
+     */
+    private static class Holder {
+        static final IDictionary DICTIONARY = load();
+    }
+
+    /**
+     * Kept separate from the dictionary so that using the index file never loads the dictionary
+     */
+    private static class IndexHolder {
+        static final SynonymIndex SYNONYM_INDEX = loadSynonymIndex();
+        static final SynonymCache SYNONYM_CACHE = new SynonymCache(SYNONYM_INDEX);
+    }
+}
@@ -0,0 +1,84 @@
+package edu.virginia.aid.util;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import edu.mit.jwi.IDictionary;
+import edu.mit.jwi.item.IIndexWord;
+import edu.mit.jwi.item.IWord;
+import edu.mit.jwi.item.IWordID;
+import edu.mit.jwi.item.POS;
+
+/**
+ * Synonym index that looks each term up directly in a WordNet dictionary through JWI
+ *
+ * @author Matt Pearson-Beck & Jeff Principe
+ */
+public class WordNetSynonymIndex implements SynonymIndex {
+
+    /**
+     * The parts of speech checked for each term
+     */
+    public static final POS[] PARTS_OF_SPEECH = new POS[]{POS.NOUN, POS.ADJECTIVE, POS.ADVERB, POS.VERB};
+
+    /**
+     * The WordNet dictionary used to look up synonyms
+     */
+    private final IDictionary wordNetDictionary;
+
+    /**
+     * Creates an index backed by the given dictionary
+     *
+     * @param wordNetDictionary An open WordNet dictionary
+     */
+    public WordNetSynonymIndex(IDictionary wordNetDictionary) {
+        this.wordNetDictionary = wordNetDictionary;
+    }
+
+    /**
+     * Builds the synonym set for a term by checking each of its senses in WordNet
+     *
+     * @param term The term to find synonyms for
+     * @return Unmodifiable set of the term and all of its synonyms
+     */
+    @Override
+    public Set<String> getSynonyms(String term) {
+        // Create set of synonyms with just the term, build it up with WordNet through JWI.
+        Set<String> termSynonyms = new HashSet<>();
+        termSynonyms.add(term);
+
+        // Check each part of speech for thoroughness.
+        for (POS pos : PARTS_OF_SPEECH) {
+            // Get index word, verify it exists.
+            IIndexWord idxWord = wordNetDictionary.getIndexWord(term, pos);
+            if (idxWord == null) continue;
+            termSynonyms.addAll(getSynonyms(idxWord));
+        }
+
+        return Collections.unmodifiableSet(termSynonyms);
+    }
+
+    /**
+     * Gets the lemmas of every synset that an index word belongs to
+     *
+     * @param idxWord The index word to find synonyms for
+     * @return Set of synonym lemmas, not including the index word itself unless WordNet lists it
+     */
+    public Set<String> getSynonyms(IIndexWord idxWord) {
+        Set<String> lemmas = new HashSet<>();
+
+        // Get all word IDs for this index word.
+        for (IWordID wordID : idxWord.getWordIDs()) {
+            // Get word for this wordID and verify it exists.
+            IWord word = wordNetDictionary.getWord(wordID);
+            if (word == null) continue;
+            // Add this word's synset word lemmas to the list of synonyms.
+            for (IWord synonym : word.getSynset().getWords()) {
+                lemmas.add(synonym.getLemma());
+            }
+        }
+
+        return lemmas;
+    }
+}
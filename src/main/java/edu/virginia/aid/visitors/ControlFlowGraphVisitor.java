@@ -23,6 +23,8 @@ package edu.virginia.aid.visitors;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -64,10 +66,11 @@ public class ControlFlowGraphVisitor extends ASTVisitor {
 	private Map<Statement, Set<Statement>> predecessors, successors;
 	
 	public ControlFlowGraphVisitor() {
-		statements = new HashSet<Statement>();
-		relations = new HashMap<Statement, Set<Statement>>();
-		predecessors = new HashMap<Statement, Set<Statement>>();
-		successors = new HashMap<Statement, Set<Statement>>();
+		// Linked collections keep iteration in visit order, so the graph is walked identically on every thread
+		statements = new LinkedHashSet<Statement>();
+		relations = new LinkedHashMap<Statement, Set<Statement>>();
+		predecessors = new LinkedHashMap<Statement, Set<Statement>>();
+		successors = new LinkedHashMap<Statement, Set<Statement>>();
 	}
 	
 	public Statement getInit() {
@@ -485,7 +488,7 @@ public class ControlFlowGraphVisitor extends ASTVisitor {
 			Map<Statement, Set<Statement>> map, Statement statement) {
 		Set<Statement> set = map.get(statement);
 		if (set == null) {
-			set = new HashSet<Statement>();
+			set = new LinkedHashSet<Statement>();
 			map.put(statement, set);
 		}
 		return set;
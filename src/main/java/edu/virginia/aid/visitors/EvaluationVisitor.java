@@ -24,16 +24,8 @@ import edu.virginia.aid.data.IdentifierScope;
 import edu.virginia.aid.data.IdentifierType;
 import edu.virginia.aid.data.IdentifierUse;
 import edu.virginia.aid.data.MethodFeatures;
-import edu.virginia.aid.symex.BinOpResult;
-import edu.virginia.aid.symex.BooleanValue;
-import edu.virginia.aid.symex.CharacterValue;
-import edu.virginia.aid.symex.Constant;
-import edu.virginia.aid.symex.ExternalValue;
 import edu.virginia.aid.symex.IdentifierValue;
-import edu.virginia.aid.symex.NullValue;
-import edu.virginia.aid.symex.StringValue;
-import edu.virginia.aid.symex.SubroutineResult;
-import edu.virginia.aid.symex.UnOpResult;
+import edu.virginia.aid.symex.IdentifierValueFactory;
 
 /**
  * ASTVisitor for building up an IdentifierValue from an Expression
@@ -88,7 +80,7 @@ public class EvaluationVisitor extends ASTVisitor {
         if (identifier != null && memory.get(identifier) != null) {
             result = memory.get(identifier);
         } else if (identifier == null) {
-            result = new ExternalValue(node.getIdentifier()); // TODO: figure out why some fields aren't being resolved
+            result = IdentifierValueFactory.externalValue(node.getIdentifier()); // TODO: figure out why some fields aren't being resolved
         }
 
         return false;
@@ -101,7 +93,7 @@ public class EvaluationVisitor extends ASTVisitor {
      */
     public void endVisit(QualifiedName node) {
         if (result == null) {
-            result = new ExternalValue(node.getFullyQualifiedName());
+            result = IdentifierValueFactory.externalValue(node.getFullyQualifiedName());
         }
     }
 
@@ -112,7 +104,7 @@ public class EvaluationVisitor extends ASTVisitor {
      */
     public void endVisit(ThisExpression node) {
         if (result == null) {
-            result = new ExternalValue("this");
+            result = IdentifierValueFactory.externalValue("this");
         }
     }
 
@@ -145,7 +137,7 @@ public class EvaluationVisitor extends ASTVisitor {
      * @return false
      */
     public boolean visit(MethodInvocation node) {
-        result = new SubroutineResult(node.getName().getIdentifier());
+        result = IdentifierValueFactory.subroutineResult(node.getName().getIdentifier());
         return false;
     }
 
@@ -179,7 +171,7 @@ public class EvaluationVisitor extends ASTVisitor {
         node.getRightOperand().accept(rightVisitor);
         IdentifierValue rightResult = rightVisitor.getResult();
 
-        result = new BinOpResult(node.getOperator(), leftResult, rightResult);
+        result = IdentifierValueFactory.binOpResult(node.getOperator(), leftResult, rightResult);
         return false;
     }
 
@@ -190,7 +182,7 @@ public class EvaluationVisitor extends ASTVisitor {
      * @return false
      */
     public boolean visit(NullLiteral node) {
-        result = new NullValue();
+        result = IdentifierValueFactory.nullValue();
         return false;
     }
 
@@ -203,17 +195,17 @@ public class EvaluationVisitor extends ASTVisitor {
     public boolean visit(NumberLiteral node) {
     	try {
             if (node.getToken().startsWith("0x")) {
-                result = new Constant(Long.decode(node.getToken()));
+                result = IdentifierValueFactory.constant(Long.decode(node.getToken()));
             } else if (node.getToken().startsWith("0b")) {
-                result = new Constant(Long.valueOf(node.getToken().substring(2), 2));
+                result = IdentifierValueFactory.constant(Long.valueOf(node.getToken().substring(2), 2));
             } else if (node.getToken().charAt(node.getToken().length() - 1) <= 57 && node.getToken().startsWith("0") && !node.getToken().contains(".") && node.getToken().length() > 1) {
-                result = new Constant(Long.valueOf(node.getToken().substring(1), 8));
+                result = IdentifierValueFactory.constant(Long.valueOf(node.getToken().substring(1), 8));
             } else if (node.getToken().endsWith("l") || node.getToken().endsWith("L")) {
-                result = new Constant(Long.parseLong(node.getToken().substring(0, node.getToken().length() - 1)));
+                result = IdentifierValueFactory.constant(Long.parseLong(node.getToken().substring(0, node.getToken().length() - 1)));
             } else if (node.getToken().endsWith("f") || node.getToken().endsWith("F")) {
-                result = new Constant(Float.parseFloat(node.getToken().substring(0, node.getToken().length() - 1)));
+                result = IdentifierValueFactory.constant(Float.parseFloat(node.getToken().substring(0, node.getToken().length() - 1)));
             } else {
-                result = new Constant(Double.parseDouble(node.getToken()));
+                result = IdentifierValueFactory.constant(Double.parseDouble(node.getToken()));
             }    		
     	} catch (Exception e) {
     		// Don't set result, will catch null later.
@@ -228,7 +220,7 @@ public class EvaluationVisitor extends ASTVisitor {
      * @return false
      */
     public boolean visit(CharacterLiteral node) {
-        result = new CharacterValue(node.charValue());
+        result = IdentifierValueFactory.characterValue(node.charValue());
         return false;
     }
 
@@ -258,11 +250,11 @@ public class EvaluationVisitor extends ASTVisitor {
         node.getOperand().accept(visitor);
         IdentifierValue operandValue = visitor.getResult();
         if (node.getOperator().equals(PrefixExpression.Operator.INCREMENT)) {
-            result = new BinOpResult(InfixExpression.Operator.PLUS, operandValue, new Constant(1)); // TODO: update identifier in Expression when this is seen
+            result = IdentifierValueFactory.binOpResult(InfixExpression.Operator.PLUS, operandValue, IdentifierValueFactory.constant(1)); // TODO: update identifier in Expression when this is seen
         } else if (node.getOperator().equals(PrefixExpression.Operator.DECREMENT)) {
-            result = new BinOpResult(InfixExpression.Operator.MINUS, operandValue, new Constant(1)); // TODO: update identifier in Expression when this is seen
+            result = IdentifierValueFactory.binOpResult(InfixExpression.Operator.MINUS, operandValue, IdentifierValueFactory.constant(1)); // TODO: update identifier in Expression when this is seen
         } else {
-            result = new UnOpResult(node.getOperator(), operandValue);
+            result = IdentifierValueFactory.unOpResult(node.getOperator(), operandValue);
         }
 
         return false;
@@ -275,7 +267,7 @@ public class EvaluationVisitor extends ASTVisitor {
      * @return false
      */
     public boolean visit(BooleanLiteral node) {
-        result = new BooleanValue(node.booleanValue());
+        result = IdentifierValueFactory.booleanValue(node.booleanValue());
         return false;
     }
 
@@ -286,7 +278,7 @@ public class EvaluationVisitor extends ASTVisitor {
      * @return false
      */
     public boolean visit(StringLiteral node) {
-        result = new StringValue(node.getLiteralValue());
+        result = IdentifierValueFactory.stringValue(node.getLiteralValue());
         return false;
     }
 